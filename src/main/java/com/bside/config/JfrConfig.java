@@ -0,0 +1,46 @@
+package com.bside.config;
+
+import com.bside.students.jfr.StudentJsonMessageConverter;
+import com.bside.students.jfr.StudentRequestInterceptor;
+import com.bside.students.jfr.StudentValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the web side of the JFR events in com.bside.students.jfr. The events cost a couple of
+ * timestamp reads when a recording does not enable them; see {@code jfr/students.jfc} for the
+ * settings meant for continuous recordings. Disable with {@code students.jfr.enabled=false}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "students.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectProvider<LocalValidatorFactoryBean> validator;
+
+    @Bean
+    StudentJsonMessageConverter studentJsonMessageConverter(ObjectMapper objectMapper) {
+        return new StudentJsonMessageConverter(objectMapper);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StudentRequestInterceptor()).addPathPatterns("/v1/students/**", "/v1/students");
+    }
+
+    @Override
+    public Validator getValidator() {
+        LocalValidatorFactoryBean defaultValidator = validator.getIfAvailable();
+        return defaultValidator == null ? null : new StudentValidator(defaultValidator);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bside.config;
+
+import com.bside.students.metrics.SqlStatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource with datasource-proxy so every statement goes through
+ * {@link SqlStatementListener}. Disable with {@code students.sql.profiling.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "students.sql.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfilingConfig {
+
+    @Bean
+    static BeanPostProcessor sqlProfilingDataSourcePostProcessor(
+            @Value("${students.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMillis,
+            @Value("${students.sql.repeated-statement-threshold:10}") int repeatedStatementThreshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new SqlStatementListener(slowQueryThresholdMillis, repeatedStatementThreshold))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
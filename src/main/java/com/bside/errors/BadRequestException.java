@@ -0,0 +1,7 @@
+package com.bside.errors;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
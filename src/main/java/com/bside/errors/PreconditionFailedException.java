@@ -0,0 +1,7 @@
+package com.bside.errors;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
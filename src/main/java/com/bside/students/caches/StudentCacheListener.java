@@ -0,0 +1,182 @@
+package com.bside.students.caches;
+
+import com.bside.students.events.StudentChangedEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Keeps a dedicated LISTEN connection open and evicts the ids that other nodes publish through
+ * {@link StudentCacheNotifier}. Whenever the connection is lost the whole cache is flushed, because
+ * notifications sent in the meantime are gone for good. Each remote notification is also
+ * republished locally as one {@link StudentChangedEvent} for all its ids, so in-memory indexes can
+ * follow it with a single reload; a notification with more ids than
+ * {@code students.cache.invalidation.rebuild-threshold} is handled like a reset instead.
+ */
+@Component
+public class StudentCacheListener implements SmartLifecycle {
+
+    private static final Logger log = LogManager.getLogger(StudentCacheListener.class);
+
+    @Autowired
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${students.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${students.cache.invalidation.channel:student_cache}")
+    private String channel;
+
+    @Value("${students.cache.invalidation.poll-timeout-ms:1000}")
+    private int pollTimeoutMillis;
+
+    @Value("${students.cache.invalidation.reconnect-delay-ms:1000}")
+    private long reconnectDelayMillis;
+
+    @Value("${students.cache.invalidation.max-reconnect-delay-ms:30000}")
+    private long maxReconnectDelayMillis;
+
+    @Value("${students.cache.invalidation.rebuild-threshold:500}")
+    private int rebuildThreshold;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid cache invalidation channel: " + channel);
+        }
+        running = true;
+        thread = Thread.ofPlatform().name("student-cache-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(pollTimeoutMillis * 2L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    private void listen() {
+        long delay = reconnectDelayMillis;
+        while (running) {
+            try (Connection connection = this.connect()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("Listening for student cache invalidations on channel {}", channel);
+                this.reset();
+                delay = reconnectDelayMillis;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            this.handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // A notification that failed to apply is lost just like one missed while disconnected,
+                // so both flush everything and start over on a new connection
+                if (!running) {
+                    break;
+                }
+                log.error("Cache invalidation listener failed, flushing cache and reconnecting in {} ms", delay);
+                log.error(e);
+                try {
+                    this.reset();
+                } catch (RuntimeException resetException) {
+                    log.error("Error flushing the cache after the invalidation listener failed");
+                    log.error(resetException);
+                }
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                delay = Math.min(delay * 2, maxReconnectDelayMillis);
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(studentCacheNotifier.getNodeId())) {
+            return;
+        }
+        String[] values = payload.substring(separator + 1).split(",");
+        List<Integer> ids = new ArrayList<>(values.length);
+        for (String value : values) {
+            try {
+                ids.add(Integer.valueOf(value));
+            } catch (NumberFormatException e) {
+                log.error("Ignoring malformed cache invalidation payload: {}", payload);
+                return;
+            }
+        }
+        if (ids.size() > rebuildThreshold) {
+            log.info("Received {} changed students, rebuilding instead of reloading them", ids.size());
+            this.reset();
+            return;
+        }
+        studentCacheNotifier.evict(ids);
+        eventPublisher.publishEvent(StudentChangedEvent.updatedAll(ids));
+    }
+
+    private void reset() {
+        studentCacheNotifier.evictAll();
+        eventPublisher.publishEvent(StudentChangedEvent.reset());
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+}
@@ -0,0 +1,126 @@
+package com.bside.students.caches;
+
+import com.bside.students.models.Student;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class StudentCacheNotifier {
+
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${students.cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${students.cache.invalidation.channel:student_cache}")
+    private String channel;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Queues the invalidation on the connection of the write's transaction, so Postgres delivers it
+     * when the write commits and drops it when the write rolls back. Nothing is caught here: a
+     * failed NOTIFY rolls the write back with it, instead of leaving the other nodes stale.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(Integer id) {
+        if (!enabled) {
+            return;
+        }
+        this.pgNotify(nodeId + ":" + id);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(List<Integer> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        StringBuilder payload = new StringBuilder(nodeId).append(':');
+        int headerLength = payload.length();
+        for (Integer id : ids) {
+            String value = String.valueOf(id);
+            if (payload.length() > headerLength
+                    && payload.length() + value.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                this.pgNotify(payload.toString());
+                payload.setLength(headerLength);
+            }
+            if (payload.length() > headerLength) {
+                payload.append(',');
+            }
+            payload.append(value);
+        }
+        this.pgNotify(payload.toString());
+    }
+
+    /**
+     * Evicts a student changed outside this node's Hibernate session factory, by another node or
+     * through R2DBC. Hibernate keeps its second-level and query caches in sync with its own writes
+     * only, so both are evicted here as well.
+     */
+    public void evict(Integer id) {
+        this.evict(List.of(id));
+    }
+
+    /**
+     * Evicts a batch of students; the query regions are evicted once for the whole batch.
+     */
+    public void evict(Collection<Integer> ids) {
+        Cache cache = cacheManager.getCache(StudentCaches.STUDENTS);
+        org.hibernate.Cache secondLevelCache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        for (Integer id : ids) {
+            if (cache != null) {
+                cache.evict(id);
+            }
+            secondLevelCache.evictEntityData(Student.class, id);
+        }
+        secondLevelCache.evictQueryRegions();
+    }
+
+    public void evictAll() {
+        Cache cache = cacheManager.getCache(StudentCaches.STUDENTS);
+        if (cache != null) {
+            cache.clear();
+        }
+        org.hibernate.Cache secondLevelCache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        secondLevelCache.evictEntityData(Student.class);
+        secondLevelCache.evictQueryRegions();
+    }
+
+    private void pgNotify(String payload) {
+        // JdbcTemplate joins the transaction's connection, the same one the write went through
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+}
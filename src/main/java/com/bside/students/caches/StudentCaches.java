@@ -0,0 +1,8 @@
+package com.bside.students.caches;
+
+public final class StudentCaches {
+    public static final String STUDENTS = "students";
+
+    private StudentCaches() {
+    }
+}
@@ -0,0 +1,25 @@
+package com.bside.students.caches;
+
+import lombok.Getter;
+
+/**
+ * The first page of {@code GET v1/students} already serialized to JSON, with an optional gzip copy.
+ * It belongs to the write generation it was built from and is never modified; the arrays are
+ * written to the response as they are.
+ */
+@Getter
+public final class StudentListingSnapshot {
+    private final long generation;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    public StudentListingSnapshot(long generation, byte[] json, byte[] gzip) {
+        this.generation = generation;
+        this.json = json;
+        this.gzip = gzip;
+    }
+
+    public boolean hasGzip() {
+        return gzip != null;
+    }
+}
@@ -0,0 +1,211 @@
+package com.bside.students.controllers;
+
+import com.bside.errors.BadRequestException;
+import com.bside.errors.GenericException;
+import com.bside.errors.PreconditionFailedException;
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentLookupDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentRankDto;
+import com.bside.students.dtos.StudentStatsDto;
+import com.bside.students.services.ReactiveStudentService;
+import com.bside.students.services.StudentLeaderboardService;
+import com.bside.students.services.StudentLookupService;
+import com.bside.students.services.StudentStatsService;
+import jakarta.validation.Valid;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * The v1/students contract served by WebFlux when the {@code reactive} profile is active. Reads and
+ * writes of the student rows are non-blocking; lookup, stats and leaderboard keep their existing
+ * services and run on the bounded elastic scheduler, since their Postgres backends use JDBC.
+ * {@code GET /stream} takes the same keyset parameters as {@code GET ""} and writes the page as
+ * NDJSON while the rows arrive.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("v1/students")
+public class ReactiveStudentController {
+    private static final Logger log = LogManager.getLogger(ReactiveStudentController.class);
+
+    @Autowired
+    private ReactiveStudentService reactiveStudentService;
+
+    @Autowired
+    private StudentLookupService studentLookupService;
+
+    @Autowired
+    private StudentStatsService studentStatsService;
+
+    @Autowired
+    private StudentLeaderboardService studentLeaderboardService;
+
+    @PostMapping("")
+    public Mono<ResponseEntity<StudentDto>> create(@Valid @RequestBody StudentDto studentDto){
+        log.info("Receive request create in controller");
+
+        return reactiveStudentService.create(studentDto)
+                .map(student -> new ResponseEntity<>(student, HttpStatus.CREATED))
+                .doOnSuccess(response -> log.info("[END] create student"))
+                .onErrorMap(this.failure("There was an error while trying to create the student. Please check the logs."));
+    }
+
+    @GetMapping("")
+    public Mono<ResponseEntity<StudentPageDto<StudentDto>>> getAll(@RequestParam(required = false) Integer after,
+                                                                   @RequestParam(required = false) Integer limit){
+        log.info("Receive request get all students in controller");
+
+        return reactiveStudentService.getAll(after, limit)
+                .map(students -> new ResponseEntity<>(students, HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] get all students"))
+                .onErrorMap(this.failure("There was an error while trying get all students. Please check the logs."));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StudentDto> stream(@RequestParam(required = false) Integer after,
+                                   @RequestParam(required = false) Integer limit){
+        log.info("Receive request stream students in controller");
+
+        return reactiveStudentService.stream(after, limit)
+                .doOnComplete(() -> log.info("[END] stream students"))
+                .onErrorMap(this.failure("There was an error while trying stream the students. Please check the logs."));
+    }
+
+    @GetMapping("/lookup")
+    public Mono<ResponseEntity<List<StudentLookupDto>>> lookup(@RequestParam(required = false) String q,
+                                                               @RequestParam(required = false) Integer limit){
+        log.info("Receive request lookup students in controller");
+
+        return this.blocking(() -> studentLookupService.lookup(q, limit))
+                .map(students -> new ResponseEntity<>(students, HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] lookup students"))
+                .onErrorMap(this.failure("There was an error while trying lookup students. Please check the logs."));
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<StudentStatsDto>> getStats(){
+        log.info("Receive request get students stats in controller");
+
+        return this.blocking(() -> studentStatsService.getStats())
+                .map(stats -> new ResponseEntity<>(stats, HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] get students stats"))
+                .onErrorMap(this.failure("There was an error while trying get the students stats. Please check the logs."));
+    }
+
+    @GetMapping("/top")
+    public Mono<ResponseEntity<List<StudentRankDto>>> getTop(@RequestParam(required = false) Integer n){
+        log.info("Receive request get top students in controller");
+
+        return Mono.fromCallable(() -> studentLeaderboardService.getTop(n))
+                .map(top -> new ResponseEntity<>(top, HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] get top students"))
+                .onErrorMap(this.failure("There was an error while trying get the top students. Please check the logs."));
+    }
+
+    @GetMapping("/{id}/rank")
+    public Mono<ResponseEntity<StudentRankDto>> getRank(@PathVariable Integer id){
+        log.info("Receive request get student rank in controller");
+
+        return Mono.fromCallable(() -> studentLeaderboardService.getRank(id))
+                .map(rank -> new ResponseEntity<>(rank, HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] get student rank"))
+                .onErrorMap(this.failure("There was an error while trying get the student rank. Please check the logs."));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<StudentDto>> getById(@PathVariable Integer id, ServerWebExchange exchange){
+        log.info("Receive request get student in controller");
+
+        return reactiveStudentService.getById(id)
+                .flatMap(student -> {
+                    if (student.getVersion() != null
+                            && exchange.checkNotModified(StudentVersionHeaders.etag(student.getVersion()))) {
+                        log.info("[END] get student not modified");
+                        return Mono.empty();
+                    }
+                    log.info("[END] get student");
+                    return Mono.just(new ResponseEntity<>(student,
+                            StudentVersionHeaders.versionHeaders(student.getVersion()), HttpStatus.OK));
+                })
+                .onErrorMap(this.failure("There was an error while trying get the student. Please check the logs."));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<StudentDto> export(){
+        log.info("Receive request export students in controller");
+
+        return reactiveStudentService.export()
+                .doOnComplete(() -> log.info("[END] export students"))
+                .onErrorMap(this.failure("There was an error while trying to export the students. Please check the logs."));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<StudentDto>> update(@PathVariable Integer id,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @Valid @RequestBody StudentDto studentDto) {
+        log.info("Receive request update in controller");
+
+        return Mono.defer(() -> StudentVersionHeaders.conditionallyReactive(StudentVersionHeaders.ifMatch(ifMatch),
+                        version -> reactiveStudentService.update(id, studentDto, version)))
+                .map(student -> new ResponseEntity<>(student,
+                        StudentVersionHeaders.versionHeaders(student.getVersion()), HttpStatus.OK))
+                .doOnSuccess(response -> log.info("[END] update student"))
+                .onErrorMap(this.failure("There was an error while trying to update the student. Please check the logs."));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Void>> patch(@PathVariable Integer id,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                            @Valid @RequestBody StudentPatchDto studentPatchDto) {
+        log.info("Receive request patch in controller");
+
+        return Mono.defer(() -> StudentVersionHeaders.conditionallyReactive(StudentVersionHeaders.ifMatch(ifMatch),
+                        version -> reactiveStudentService.patch(id, studentPatchDto, version)))
+                .map(student -> new ResponseEntity<Void>(StudentVersionHeaders.versionHeaders(student.getVersion()),
+                        HttpStatus.NO_CONTENT))
+                .doOnSuccess(response -> log.info("[END] patch student"))
+                .onErrorMap(this.failure("There was an error while trying to patch the student. Please check the logs."));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> delete(@PathVariable Integer id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Receive request delete in controller");
+
+        return Mono.defer(() -> StudentVersionHeaders.conditionallyReactive(StudentVersionHeaders.ifMatch(ifMatch),
+                        version -> reactiveStudentService.delete(id, version).thenReturn(Boolean.TRUE)))
+                .then(Mono.fromSupplier(() -> new ResponseEntity<>("The student was deleted successfully", HttpStatus.OK)))
+                .doOnSuccess(response -> log.info("[END] delete student"))
+                .onErrorMap(this.failure("There was an error while trying to delete the student. Please check the logs."));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Same translation the servlet controller does with its catch blocks
+    private Function<Throwable, Throwable> failure(String message) {
+        return e -> e instanceof BadRequestException || e instanceof ResourceNotFoundException
+                || e instanceof PreconditionFailedException
+                ? e
+                : new GenericException(message);
+    }
+}
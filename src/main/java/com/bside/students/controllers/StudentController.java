@@ -1,22 +1,55 @@
 package com.bside.students.controllers;
 
+import com.bside.errors.BadRequestException;
 import com.bside.errors.GenericException;
+import com.bside.errors.PreconditionFailedException;
 import com.bside.errors.ResourceNotFoundException;
+import com.bside.errors.TooManyRequestsException;
+import com.bside.students.caches.StudentListingSnapshot;
+import com.bside.students.dtos.StudentBatchResultDto;
 import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentImportResultDto;
+import com.bside.students.dtos.StudentLookupDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentRankDto;
+import com.bside.students.dtos.StudentSearchDto;
+import com.bside.students.dtos.StudentStatsDto;
+import com.bside.students.dtos.StudentWriteStatusDto;
+import com.bside.students.jfr.StudentSerializationEvent;
 import com.bside.students.models.Student;
+import com.bside.students.services.StudentImportService;
+import com.bside.students.services.StudentLeaderboardService;
+import com.bside.students.services.StudentLookupService;
 import com.bside.students.services.StudentService;
+import com.bside.students.services.StudentStatsService;
+import com.bside.students.services.StudentWriteBehindService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("v1/students")
 public class StudentController {
     private static final Logger log = LogManager.getLogger(StudentController.class);
@@ -24,42 +57,254 @@ public class StudentController {
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentLookupService studentLookupService;
+
+    @Autowired
+    private StudentStatsService studentStatsService;
+
+    @Autowired
+    private StudentLeaderboardService studentLeaderboardService;
+
+    @Autowired
+    private StudentWriteBehindService studentWriteBehindService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("")
-    public ResponseEntity<Student> create(@Valid @RequestBody StudentDto studentDto){
+    public ResponseEntity<?> create(@Valid @RequestBody StudentDto studentDto){
         log.info("Receive request create in controller");
 
         try {
+            if (studentWriteBehindService.isEnabled()) {
+                StudentWriteStatusDto status = studentWriteBehindService.enqueue(studentDto);
+                log.info("[END] enqueue student with token {}", status.getToken());
+                return ResponseEntity.accepted()
+                        .location(URI.create("/v1/students/writes/" + status.getToken()))
+                        .body(status);
+            }
             Student newStudent = studentService.create(studentDto);
             log.info("[END] create student");
             return new ResponseEntity<>(newStudent, HttpStatus.CREATED);
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             throw new GenericException("There was an error while trying to create the student. Please check the logs.");
         }
     }
 
+    @GetMapping("/writes/{token}")
+    public ResponseEntity<StudentWriteStatusDto> getWriteStatus(@PathVariable String token){
+        log.info("Receive request get write status in controller");
+
+        try {
+            StudentWriteStatusDto status = studentWriteBehindService.getStatus(token);
+            log.info("[END] get write status");
+            return new ResponseEntity<>(status, HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying get the write status. Please check the logs.");
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<StudentBatchResultDto> createBatch(@RequestBody List<StudentDto> studentsDto){
+        log.info("Receive request create batch in controller");
+
+        try {
+            StudentBatchResultDto result = studentService.createBatch(studentsDto);
+            log.info("[END] create batch students");
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return new ResponseEntity<>(result, status);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying to create the students. Please check the logs.");
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<StudentImportResultDto> importCsv(InputStream inputStream){
+        log.info("Receive request import students in controller");
+
+        try {
+            StudentImportResultDto result = studentImportService.importCsv(inputStream);
+            log.info("[END] import students");
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying to import the students. Please check the logs.");
+        }
+    }
+
     @GetMapping("")
-    public ResponseEntity<List<StudentDto>> getAll(){
+    public ResponseEntity<?> getAll(@RequestParam(required = false) Integer after,
+                                    @RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) List<String> fields,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
         log.info("Receive request get all students in controller");
 
         try {
-            List<StudentDto> students = studentService.getAll();
+            if (after == null && limit == null && (fields == null || fields.isEmpty())) {
+                Optional<StudentListingSnapshot> snapshot = studentService.getListingSnapshot();
+                if (snapshot.isPresent()) {
+                    log.info("[END] get all students from snapshot {}", snapshot.get().getGeneration());
+                    return this.snapshotResponse(snapshot.get(), acceptEncoding);
+                }
+            }
+            StudentPageDto<?> students = fields == null || fields.isEmpty()
+                    ? studentService.getAll(after, limit)
+                    : studentService.getAll(after, limit, fields);
             log.info("[END] get all students");
             return new ResponseEntity<>(students, HttpStatus.OK);
+        } catch (BadRequestException e) {
+            throw e;
         } catch (Exception e) {
             throw new GenericException("There was an error while trying get all students. Please check the logs.");
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<StudentPageDto<StudentDto>> search(StudentSearchDto studentSearchDto,
+                                                             @RequestParam(required = false) Integer after,
+                                                             @RequestParam(required = false) Integer limit){
+        log.info("Receive request search students in controller");
+
+        try {
+            StudentPageDto<StudentDto> students = studentService.search(studentSearchDto, after, limit);
+            log.info("[END] search students");
+            return new ResponseEntity<>(students, HttpStatus.OK);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying search students. Please check the logs.");
+        }
+    }
+
+    @GetMapping("/lookup")
+    public ResponseEntity<List<StudentLookupDto>> lookup(@RequestParam(required = false) String q,
+                                                         @RequestParam(required = false) Integer limit){
+        log.info("Receive request lookup students in controller");
+
+        try {
+            List<StudentLookupDto> students = studentLookupService.lookup(q, limit);
+            log.info("[END] lookup students");
+            return new ResponseEntity<>(students, HttpStatus.OK);
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying lookup students. Please check the logs.");
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<StudentStatsDto> getStats(){
+        log.info("Receive request get students stats in controller");
+
+        try {
+            StudentStatsDto stats = studentStatsService.getStats();
+            log.info("[END] get students stats");
+            return new ResponseEntity<>(stats, HttpStatus.OK);
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying get the students stats. Please check the logs.");
+        }
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<StudentRankDto>> getTop(@RequestParam(required = false) Integer n){
+        log.info("Receive request get top students in controller");
+
+        try {
+            List<StudentRankDto> top = studentLeaderboardService.getTop(n);
+            log.info("[END] get top students");
+            return new ResponseEntity<>(top, HttpStatus.OK);
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying get the top students. Please check the logs.");
+        }
+    }
+
+    @GetMapping("/{id}/rank")
+    public ResponseEntity<StudentRankDto> getRank(@PathVariable Integer id){
+        log.info("Receive request get student rank in controller");
+
+        try {
+            StudentRankDto rank = studentLeaderboardService.getRank(id);
+            log.info("[END] get student rank");
+            return new ResponseEntity<>(rank, HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying get the student rank. Please check the logs.");
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StudentDto> getById(@PathVariable Integer id, WebRequest webRequest){
+        log.info("Receive request get student in controller");
+
+        try {
+            StudentDto student = studentService.getById(id);
+            if (student.getVersion() != null && webRequest.checkNotModified(StudentVersionHeaders.etag(student.getVersion()))) {
+                log.info("[END] get student not modified");
+                return null;
+            }
+            log.info("[END] get student");
+            return new ResponseEntity<>(student, StudentVersionHeaders.versionHeaders(student.getVersion()), HttpStatus.OK);
+        } catch (ResourceNotFoundException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new GenericException("There was an error while trying get the student. Please check the logs.");
+        }
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void export(HttpServletResponse response) {
+        log.info("Receive request export students in controller");
+
+        try {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            OutputStream outputStream = response.getOutputStream();
+            ObjectWriter writer = objectMapper.writerFor(StudentDto.class);
+            StudentSerializationEvent event = new StudentSerializationEvent("export");
+            event.begin();
+            long exported = studentService.export(studentDto -> {
+                try {
+                    outputStream.write(writer.writeValueAsBytes(studentDto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+            event.setBatchSize((int) exported);
+            event.commit();
+            log.info("[END] export {} students", exported);
+        } catch (Exception e) {
+            throw new GenericException("There was an error while trying to export the students. Please check the logs.");
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Optional<Student>> update(@PathVariable Integer id,
-                                                           @Valid @RequestBody StudentDto studentDto) {
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @Valid @RequestBody StudentDto studentDto) {
         log.info("Receive request update in controller");
 
         try {
-            Optional<Student> student = studentService.update(id, studentDto);
+            Optional<Student> student = StudentVersionHeaders.conditionally(StudentVersionHeaders.ifMatch(ifMatch),
+                    version -> studentService.update(id, studentDto, version));
             log.info("[END] update student");
-            return new ResponseEntity<>(student, HttpStatus.OK);
-        } catch (ResourceNotFoundException e) {
+            Long version = student.map(Student::getVersion).orElse(null);
+            return new ResponseEntity<>(student, StudentVersionHeaders.versionHeaders(version), HttpStatus.OK);
+        } catch (ResourceNotFoundException | PreconditionFailedException e) {
             throw e;
         }
         catch (Exception e) {
@@ -67,19 +312,65 @@ public class StudentController {
         }
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(@PathVariable Integer id,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                      @Valid @RequestBody StudentPatchDto studentPatchDto) {
+        log.info("Receive request patch in controller");
+
+        try {
+            Long version = StudentVersionHeaders.conditionally(StudentVersionHeaders.ifMatch(ifMatch),
+                    expectedVersion -> studentService.patch(id, studentPatchDto, expectedVersion));
+            log.info("[END] patch student");
+            return new ResponseEntity<>(StudentVersionHeaders.versionHeaders(version), HttpStatus.NO_CONTENT);
+        } catch (ResourceNotFoundException | PreconditionFailedException e) {
+            throw e;
+        }
+        catch (Exception e) {
+            throw new GenericException("There was an error while trying to patch the student. Please check the logs.");
+        }
+    }
+
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> delete(@PathVariable Integer id) {
+    public ResponseEntity<String> delete(@PathVariable Integer id,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Receive request delete in controller");
 
         try {
-            studentService.delete(id);
+            StudentVersionHeaders.conditionally(StudentVersionHeaders.ifMatch(ifMatch), version -> {
+                studentService.delete(id, version);
+                return null;
+            });
             log.info("[END] delete student");
             return new ResponseEntity<>("The student was deleted successfully", HttpStatus.OK);
-        } catch (ResourceNotFoundException e) {
+        } catch (ResourceNotFoundException | PreconditionFailedException e) {
             throw e;
         }
         catch (Exception e) {
             throw new GenericException("There was an error while trying to delete the student. Please check the logs.");
         }
     }
+
+    private ResponseEntity<byte[]> snapshotResponse(StudentListingSnapshot snapshot, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.hasGzip() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzip());
+        }
+        return response.body(snapshot.getJson());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
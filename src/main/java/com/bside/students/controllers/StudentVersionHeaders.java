@@ -0,0 +1,140 @@
+package com.bside.students.controllers;
+
+import com.bside.errors.PreconditionFailedException;
+import com.bside.errors.ResourceNotFoundException;
+import org.springframework.http.HttpHeaders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * ETag and If-Match handling shared by the servlet and reactive controllers. The entity tag of a
+ * student is its version column.
+ */
+final class StudentVersionHeaders {
+
+    private static final Pattern VERSION = Pattern.compile("0|[1-9][0-9]{0,17}");
+
+    private StudentVersionHeaders() {}
+
+    /**
+     * The If-Match condition of a write: any current version ({@code *}) or one of the listed ones.
+     */
+    record IfMatch(boolean any, List<Long> versions) {
+    }
+
+    @FunctionalInterface
+    interface VersionedWrite<T> {
+        T apply(Long expectedVersion) throws Exception;
+    }
+
+    /**
+     * Parses an If-Match header into the versions it accepts, or null when there is no header.
+     * If-Match uses strong comparison (RFC 9110, section 13.1.1), so weak tags and tags that are not
+     * a version never match; a header left without any candidate fails right away.
+     */
+    static IfMatch ifMatch(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.equals("*")) {
+            return new IfMatch(true, List.of());
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        int index = 0;
+        while (index < value.length()) {
+            char current = value.charAt(index);
+            if (current == ',' || current == ' ' || current == '\t') {
+                index++;
+                continue;
+            }
+            boolean weak = value.startsWith("W/", index);
+            if (weak) {
+                index += 2;
+            }
+            if (index >= value.length() || value.charAt(index) != '"') {
+                throw notMatched();
+            }
+            int end = value.indexOf('"', index + 1);
+            if (end < 0) {
+                throw notMatched();
+            }
+            String tag = value.substring(index + 1, end);
+            if (!weak && VERSION.matcher(tag).matches()) {
+                versions.add(Long.valueOf(tag));
+            }
+            index = end + 1;
+        }
+        if (versions.isEmpty()) {
+            throw notMatched();
+        }
+        return new IfMatch(false, List.copyOf(versions));
+    }
+
+    /**
+     * Runs a conditional write once per accepted version until one matches. Each attempt is a
+     * compare-and-set on the version, so at most one of them can succeed. A missing student fails
+     * the condition as well, as there is no current version to match.
+     */
+    static <T> T conditionally(IfMatch ifMatch, VersionedWrite<T> write) throws Exception {
+        if (ifMatch == null) {
+            return write.apply(null);
+        }
+        try {
+            if (ifMatch.any()) {
+                return write.apply(null);
+            }
+            PreconditionFailedException failure = notMatched();
+            for (Long version : ifMatch.versions()) {
+                try {
+                    return write.apply(version);
+                } catch (PreconditionFailedException e) {
+                    failure = e;
+                }
+            }
+            throw failure;
+        } catch (ResourceNotFoundException e) {
+            throw notMatched();
+        }
+    }
+
+    /**
+     * Reactive counterpart of {@link #conditionally(IfMatch, VersionedWrite)}; the attempts run one
+     * after the other.
+     */
+    static <T> Mono<T> conditionallyReactive(IfMatch ifMatch, Function<Long, Mono<T>> write) {
+        if (ifMatch == null) {
+            return write.apply(null);
+        }
+        Mono<T> attempts = ifMatch.any()
+                ? write.apply(null)
+                : Flux.fromIterable(ifMatch.versions())
+                        .concatMap(version -> write.apply(version)
+                                .onErrorResume(PreconditionFailedException.class, e -> Mono.empty()))
+                        .next()
+                        .switchIfEmpty(Mono.error(StudentVersionHeaders::notMatched));
+        return attempts.onErrorMap(ResourceNotFoundException.class, e -> notMatched());
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static HttpHeaders versionHeaders(Long version) {
+        HttpHeaders headers = new HttpHeaders();
+        if (version != null) {
+            headers.setETag(etag(version));
+        }
+        return headers;
+    }
+
+    private static PreconditionFailedException notMatched() {
+        return new PreconditionFailedException("The If-Match header does not match the current version");
+    }
+}
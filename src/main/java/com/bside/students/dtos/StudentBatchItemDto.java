@@ -0,0 +1,32 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class StudentBatchItemDto {
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private int index;
+    private Integer id;
+    private String status;
+    private Map<String, String> errors;
+
+    public StudentBatchItemDto(int index) {
+        this.index = index;
+    }
+
+    public void created(Integer id) {
+        this.id = id;
+        this.status = CREATED;
+    }
+
+    public void failed(Map<String, String> errors) {
+        this.status = FAILED;
+        this.errors = errors;
+    }
+}
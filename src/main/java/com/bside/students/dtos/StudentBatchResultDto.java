@@ -0,0 +1,20 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StudentBatchResultDto {
+    private int created;
+    private int failed;
+    private List<StudentBatchItemDto> items;
+
+    public StudentBatchResultDto(int created, int failed, List<StudentBatchItemDto> items) {
+        this.created = created;
+        this.failed = failed;
+        this.items = items;
+    }
+}
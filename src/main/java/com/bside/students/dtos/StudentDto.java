@@ -25,6 +25,8 @@ public class StudentDto {
 
     private double grade;
 
+    private Long version;
+
     public StudentDto() {}
 
     public StudentDto(Integer id, String fullName, int age, String email, String address, double grade) {
@@ -36,6 +38,12 @@ public class StudentDto {
         this.grade = grade;
     }
 
+    public StudentDto(Integer id, String fullName, int age, String email, String address, double grade,
+                      Long version) {
+        this(id, fullName, age, email, address, grade);
+        this.version = version;
+    }
+
     public StudentDto(String fullName, int age, String email, String address, double grade) {
         this.fullName = fullName;
         this.age = age;
@@ -92,4 +100,12 @@ public class StudentDto {
         this.grade = grade;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
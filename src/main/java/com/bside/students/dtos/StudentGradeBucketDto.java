@@ -0,0 +1,20 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentGradeBucketDto {
+    private double from;
+    private double to;
+    private long count;
+
+    public StudentGradeBucketDto() {}
+
+    public StudentGradeBucketDto(double from, double to, long count) {
+        this.from = from;
+        this.to = to;
+        this.count = count;
+    }
+}
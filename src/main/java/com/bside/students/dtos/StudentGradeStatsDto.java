@@ -0,0 +1,35 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StudentGradeStatsDto {
+    private String ageBand;
+    private long count;
+    private Double mean;
+    private Double min;
+    private Double max;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+    private List<StudentGradeBucketDto> histogram;
+
+    public StudentGradeStatsDto() {}
+
+    public StudentGradeStatsDto(String ageBand, long count, Double mean, Double min, Double max,
+                                Double p50, Double p90, Double p99, List<StudentGradeBucketDto> histogram) {
+        this.ageBand = ageBand;
+        this.count = count;
+        this.mean = mean;
+        this.min = min;
+        this.max = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.histogram = histogram;
+    }
+}
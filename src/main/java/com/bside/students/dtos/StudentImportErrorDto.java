@@ -0,0 +1,18 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class StudentImportErrorDto {
+    private long row;
+    private Map<String, String> errors;
+
+    public StudentImportErrorDto(long row, Map<String, String> errors) {
+        this.row = row;
+        this.errors = errors;
+    }
+}
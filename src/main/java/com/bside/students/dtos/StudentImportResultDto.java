@@ -0,0 +1,38 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class StudentImportResultDto {
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private boolean errorsTruncated;
+    private List<StudentImportErrorDto> errors = new ArrayList<>();
+
+    public void imported(long rows) {
+        this.rowsImported += rows;
+    }
+
+    public void failed(long row, Map<String, String> rowErrors, int maxReportedErrors) {
+        this.rowsFailed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new StudentImportErrorDto(row, rowErrors));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void finish(long elapsedNanos) {
+        this.elapsedMillis = elapsedNanos / 1_000_000;
+        this.rowsPerSecond = elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+}
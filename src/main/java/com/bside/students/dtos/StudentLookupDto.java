@@ -0,0 +1,24 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentLookupDto {
+    private Integer id;
+    private String fullName;
+    private String email;
+    private String address;
+    private double score;
+
+    public StudentLookupDto() {}
+
+    public StudentLookupDto(Integer id, String fullName, String email, String address, double score) {
+        this.id = id;
+        this.fullName = fullName;
+        this.email = email;
+        this.address = address;
+        this.score = score;
+    }
+}
@@ -0,0 +1,20 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StudentPageDto<T> {
+    private List<T> students;
+    private Integer nextCursor;
+    private int limit;
+
+    public StudentPageDto(List<T> students, Integer nextCursor, int limit) {
+        this.students = students;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+}
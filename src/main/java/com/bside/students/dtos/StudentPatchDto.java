@@ -0,0 +1,73 @@
+package com.bside.students.dtos;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+
+public class StudentPatchDto {
+
+    @Pattern(regexp = ".*\\S.*", message = "The name is mandatory")
+    private String fullName;
+
+    @Positive(message = "The age cannot be zero o negative")
+    private Integer age;
+
+    @Pattern(regexp = ".*\\S.*", message = "The email cannot be null.")
+    @Email(message = "The email will be valid")
+    private String email;
+
+    private String address;
+
+    private Double grade;
+
+    public StudentPatchDto() {}
+
+    public StudentPatchDto(String fullName, Integer age, String email, String address, Double grade) {
+        this.fullName = fullName;
+        this.age = age;
+        this.email = email;
+        this.address = address;
+        this.grade = grade;
+    }
+
+    public String getFullName() {
+        return fullName;
+    }
+
+    public void setFullName(String fullName) {
+        this.fullName = fullName;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getGrade() {
+        return grade;
+    }
+
+    public void setGrade(Double grade) {
+        this.grade = grade;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentRankDto {
+    private long rank;
+    private Integer id;
+    private String fullName;
+    private double grade;
+
+    public StudentRankDto() {}
+
+    public StudentRankDto(long rank, Integer id, String fullName, double grade) {
+        this.rank = rank;
+        this.id = id;
+        this.fullName = fullName;
+        this.grade = grade;
+    }
+}
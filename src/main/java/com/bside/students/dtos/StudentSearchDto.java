@@ -0,0 +1,27 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentSearchDto {
+    private Integer minAge;
+    private Integer maxAge;
+    private Double minGrade;
+    private Double maxGrade;
+    private String emailPrefix;
+    private String namePrefix;
+
+    public StudentSearchDto() {}
+
+    public StudentSearchDto(Integer minAge, Integer maxAge, Double minGrade, Double maxGrade,
+                            String emailPrefix, String namePrefix) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.minGrade = minGrade;
+        this.maxGrade = maxGrade;
+        this.emailPrefix = emailPrefix;
+        this.namePrefix = namePrefix;
+    }
+}
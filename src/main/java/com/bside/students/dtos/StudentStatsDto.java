@@ -0,0 +1,20 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class StudentStatsDto {
+    private StudentGradeStatsDto overall;
+    private List<StudentGradeStatsDto> ageBands;
+
+    public StudentStatsDto() {}
+
+    public StudentStatsDto(StudentGradeStatsDto overall, List<StudentGradeStatsDto> ageBands) {
+        this.overall = overall;
+        this.ageBands = ageBands;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bside.students.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+public class StudentWriteStatusDto {
+    public static final String PENDING = "PENDING";
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    private String token;
+    private String status;
+    private Integer id;
+    private Map<String, String> errors;
+
+    public StudentWriteStatusDto() {}
+
+    public StudentWriteStatusDto(String token, String status, Integer id, Map<String, String> errors) {
+        this.token = token;
+        this.status = status;
+        this.id = id;
+        this.errors = errors;
+    }
+
+    public static StudentWriteStatusDto pending(String token) {
+        return new StudentWriteStatusDto(token, PENDING, null, null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bside.students.events;
+
+import com.bside.students.dtos.StudentDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Published after a student write is committed, either by this node or, through the cache
+ * invalidation channel, by another node. A remote notification becomes a single event for all the
+ * ids it carries; rows the event does not carry are reloaded together, see {@link #resolveStudents}.
+ * A {@link Type#RESET} means changes may have been missed and everything derived from the table must
+ * be rebuilt.
+ */
+public class StudentChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED, RESET }
+
+    private final Type type;
+    private final Integer id;
+    private final List<Integer> ids;
+    private final StudentDto student;
+    // Reload started by the first consumer that needed the rows, awaited by the others
+    private final AtomicReference<CompletableFuture<Map<Integer, StudentDto>>> reloaded = new AtomicReference<>();
+
+    private StudentChangedEvent(Type type, Integer id, List<Integer> ids, StudentDto student) {
+        this.type = type;
+        this.id = id;
+        this.ids = ids;
+        this.student = student;
+    }
+
+    private StudentChangedEvent(Type type, Integer id, StudentDto student) {
+        this(type, id, id == null ? List.of() : List.of(id), student);
+    }
+
+    public static StudentChangedEvent created(StudentDto student) {
+        return new StudentChangedEvent(Type.CREATED, student.getId(), student);
+    }
+
+    public static StudentChangedEvent updated(Integer id, StudentDto student) {
+        return new StudentChangedEvent(Type.UPDATED, id, student);
+    }
+
+    /**
+     * Several students changed elsewhere; only their ids are known.
+     */
+    public static StudentChangedEvent updatedAll(List<Integer> ids) {
+        return new StudentChangedEvent(Type.UPDATED, null, List.copyOf(ids), null);
+    }
+
+    public static StudentChangedEvent deleted(Integer id) {
+        return new StudentChangedEvent(Type.DELETED, id, null);
+    }
+
+    public static StudentChangedEvent reset() {
+        return new StudentChangedEvent(Type.RESET, null, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The id of a single change, null when the event covers several students.
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public StudentDto getStudent() {
+        return student;
+    }
+
+    /**
+     * The changed rows by id: the one the event carries or, when it only carries ids, the rows
+     * returned by {@code loader} for all of them at once. An id missing from the map no longer
+     * exists. The loader runs once per event, however many consumers ask for the rows. No monitor is
+     * held around the query: the first consumer claims the reload with a compare-and-set and the
+     * others park on its future, which does not pin a virtual thread to its carrier. A failed reload
+     * fails its waiters and lets the next consumer try again.
+     */
+    public Map<Integer, StudentDto> resolveStudents(Function<List<Integer>, List<StudentDto>> loader) {
+        if (student != null) {
+            return Map.of(id, student);
+        }
+        if (type != Type.CREATED && type != Type.UPDATED) {
+            return Map.of();
+        }
+        CompletableFuture<Map<Integer, StudentDto>> reload = reloaded.get();
+        if (reload == null) {
+            CompletableFuture<Map<Integer, StudentDto>> claimed = new CompletableFuture<>();
+            reload = reloaded.compareAndExchange(null, claimed);
+            if (reload == null) {
+                reload = claimed;
+                try {
+                    Map<Integer, StudentDto> students = new HashMap<>();
+                    for (StudentDto loaded : loader.apply(ids)) {
+                        students.put(loaded.getId(), loaded);
+                    }
+                    claimed.complete(students);
+                } catch (RuntimeException e) {
+                    reloaded.compareAndSet(claimed, null);
+                    claimed.completeExceptionally(e);
+                }
+            }
+        }
+        try {
+            return reload.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.repositories.StudentRepository;
+import com.bside.students.services.StudentService;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Base for structures derived from the student table that live in this node and follow it through
+ * {@link StudentChangedEvent}. The state is built when the application is ready and rebuilt on
+ * every reset. A rebuild streams the table without holding the lock; changes that arrive meanwhile
+ * are queued and replayed on top of the new state before it is swapped in.
+ *
+ * @param <S> mutable state, only touched under the lock
+ */
+public abstract class InMemoryStudentIndex<S> {
+
+    private static final Logger log = LogManager.getLogger(InMemoryStudentIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private S state;
+    private List<Change> pending;
+    private boolean rebuildRequested;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    protected abstract S newState();
+
+    /**
+     * Replaces whatever the state holds for {@code id} with {@code student}, or removes it when
+     * {@code student} is null.
+     */
+    protected abstract void apply(S state, Integer id, StudentDto student);
+
+    @PostConstruct
+    void init() {
+        state = this.newState();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            this.rebuild();
+        } catch (Exception e) {
+            log.error("Error loading {}", this.getClass().getSimpleName());
+            log.error(e);
+        }
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        try {
+            if (event.getType() == StudentChangedEvent.Type.RESET) {
+                this.rebuild();
+                return;
+            }
+            // Remote changes only carry the ids; a missing row means it was deleted
+            Map<Integer, StudentDto> students = event.resolveStudents(studentRepository::findProjectedByIdIn);
+            List<Change> changes = new ArrayList<>(event.getIds().size());
+            for (Integer id : event.getIds()) {
+                changes.add(new Change(id, students.get(id)));
+            }
+            this.change(changes);
+        } catch (Exception e) {
+            log.error("Error updating {} for event {} {}", this.getClass().getSimpleName(), event.getType(),
+                    event.getIds());
+            log.error(e);
+        }
+    }
+
+    protected <R> R read(Function<S, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void change(List<Change> changes) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.addAll(changes);
+            }
+            for (Change change : changes) {
+                this.apply(state, change.id, change.student);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                rebuildRequested = true;
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean again = true;
+        while (again) {
+            S newState = this.newState();
+            long start = System.nanoTime();
+            long loaded;
+            try {
+                loaded = studentService.export(student -> this.apply(newState, student.getId(), student));
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pending = null;
+                    rebuildRequested = false;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Change change : pending) {
+                    this.apply(newState, change.id, change.student);
+                }
+                state = newState;
+                pending.clear();
+                again = rebuildRequested;
+                rebuildRequested = false;
+                if (!again) {
+                    pending = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Built {} with {} students in {} ms", this.getClass().getSimpleName(), loaded,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private static final class Change {
+        private final Integer id;
+        private final StudentDto student;
+
+        private Change(Integer id, StudentDto student) {
+            this.id = id;
+            this.student = student;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentLookupDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram inverted index over full name, email and address. A student scores the share of the
+ * query trigrams it contains, which behaves like pg_trgm word similarity for typeahead input.
+ */
+@Component
+@ConditionalOnProperty(name = "students.lookup.backend", havingValue = "memory")
+public class MemoryStudentLookupIndex extends InMemoryStudentIndex<MemoryStudentLookupIndex.LookupState>
+        implements StudentLookupIndex {
+
+    @Value("${students.lookup.min-score:0.3}")
+    private double minScore;
+
+    @Override
+    protected LookupState newState() {
+        return new LookupState();
+    }
+
+    @Override
+    protected void apply(LookupState state, Integer id, StudentDto student) {
+        Document previous = state.documents.remove(id);
+        if (previous != null) {
+            for (String trigram : previous.trigrams) {
+                Set<Integer> ids = state.postings.get(trigram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    state.postings.remove(trigram);
+                }
+            }
+        }
+        if (student == null) {
+            return;
+        }
+        Set<String> trigrams = trigrams(student.getFullName());
+        trigrams.addAll(trigrams(student.getEmail()));
+        trigrams.addAll(trigrams(student.getAddress()));
+        Document document = new Document(student, trigrams.toArray(new String[0]));
+        state.documents.put(id, document);
+        for (String trigram : document.trigrams) {
+            state.postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+    @Override
+    public List<StudentLookupDto> lookup(String query, int limit) {
+        Set<String> queryTrigrams = trigrams(query);
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+        double total = queryTrigrams.size();
+        return this.read(state -> {
+            Map<Integer, Integer> hits = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                Set<Integer> ids = state.postings.get(trigram);
+                if (ids != null) {
+                    for (Integer id : ids) {
+                        hits.merge(id, 1, Integer::sum);
+                    }
+                }
+            }
+            return hits.entrySet().stream()
+                    .filter(hit -> hit.getValue() / total >= minScore)
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(hit -> state.documents.get(hit.getKey()).toDto(hit.getValue() / total))
+                    .toList();
+        });
+    }
+
+    /**
+     * Splits the text in lowercase alphanumeric words and pads each one the way pg_trgm does,
+     * with two spaces before and one after.
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        if (text == null) {
+            return trigrams;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= lower.length(); i++) {
+            char character = i < lower.length() ? lower.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(character)) {
+                word.append(character);
+            } else if (!word.isEmpty()) {
+                String padded = "  " + word + " ";
+                for (int j = 0; j + 3 <= padded.length(); j++) {
+                    trigrams.add(padded.substring(j, j + 3));
+                }
+                word.setLength(0);
+            }
+        }
+        return trigrams;
+    }
+
+    static final class LookupState {
+        private final Map<String, Set<Integer>> postings = new HashMap<>();
+        private final Map<Integer, Document> documents = new HashMap<>();
+    }
+
+    private static final class Document {
+        private final Integer id;
+        private final String fullName;
+        private final String email;
+        private final String address;
+        private final String[] trigrams;
+
+        private Document(StudentDto student, String[] trigrams) {
+            this.id = student.getId();
+            this.fullName = student.getFullName();
+            this.email = student.getEmail();
+            this.address = student.getAddress();
+            this.trigrams = trigrams;
+        }
+
+        private StudentLookupDto toDto(double score) {
+            return new StudentLookupDto(id, fullName, email, address, score);
+        }
+    }
+}
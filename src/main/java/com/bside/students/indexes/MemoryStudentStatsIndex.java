@@ -0,0 +1,142 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentGradeStatsDto;
+import com.bside.students.dtos.StudentStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running grade aggregates per age band. Each band keeps count, sum, a histogram and the grade
+ * distribution as value counts, so min, max and exact percentile_cont style percentiles are read
+ * without touching the table. The computed response is cached until the next change.
+ */
+@Component
+@ConditionalOnProperty(name = "students.stats.backend", havingValue = "memory")
+public class MemoryStudentStatsIndex extends InMemoryStudentIndex<MemoryStudentStatsIndex.StatsState>
+        implements StudentStatsIndex {
+
+    @Autowired
+    private StudentStatsLayout layout;
+
+    @Override
+    protected StatsState newState() {
+        return new StatsState(layout.bandCount(), layout.getBuckets());
+    }
+
+    @Override
+    protected void apply(StatsState state, Integer id, StudentDto student) {
+        Sample previous = student == null ? state.samples.remove(id)
+                : state.samples.put(id, new Sample(student.getAge(), student.getGrade()));
+        if (previous != null) {
+            this.update(state, previous, -1);
+        }
+        if (student != null) {
+            this.update(state, state.samples.get(id), 1);
+        }
+        state.cached = null;
+    }
+
+    @Override
+    public StudentStatsDto stats() {
+        return this.read(state -> {
+            StudentStatsDto stats = state.cached;
+            if (stats == null) {
+                List<StudentGradeStatsDto> ageBands = new ArrayList<>(state.bands.length);
+                for (int band = 0; band < state.bands.length; band++) {
+                    ageBands.add(state.bands[band].toDto(layout.bandLabel(band), layout));
+                }
+                stats = new StudentStatsDto(state.overall.toDto(null, layout), ageBands);
+                // Readers only share the read lock, so writing the cache here cannot race with a change
+                state.cached = stats;
+            }
+            return stats;
+        });
+    }
+
+    private void update(StatsState state, Sample sample, int delta) {
+        int bucket = layout.bucket(sample.grade);
+        state.overall.update(sample.grade, bucket, delta);
+        state.bands[layout.band(sample.age)].update(sample.grade, bucket, delta);
+    }
+
+    static final class StatsState {
+        private final Map<Integer, Sample> samples = new HashMap<>();
+        private final Distribution overall;
+        private final Distribution[] bands;
+        private volatile StudentStatsDto cached;
+
+        private StatsState(int bandCount, int buckets) {
+            overall = new Distribution(buckets);
+            bands = new Distribution[bandCount];
+            for (int band = 0; band < bandCount; band++) {
+                bands[band] = new Distribution(buckets);
+            }
+        }
+    }
+
+    private static final class Sample {
+        private final int age;
+        private final double grade;
+
+        private Sample(int age, double grade) {
+            this.age = age;
+            this.grade = grade;
+        }
+    }
+
+    private static final class Distribution {
+        private final TreeMap<Double, Long> grades = new TreeMap<>();
+        private final long[] histogram;
+        private long count;
+        private double sum;
+
+        private Distribution(int buckets) {
+            histogram = new long[buckets + 1];
+        }
+
+        private void update(double grade, int bucket, int delta) {
+            count += delta;
+            sum += delta * grade;
+            histogram[bucket] += delta;
+            grades.merge(grade, (long) delta, (current, change) -> current + change == 0 ? null : current + change);
+        }
+
+        private StudentGradeStatsDto toDto(String ageBand, StudentStatsLayout layout) {
+            if (count == 0) {
+                return new StudentGradeStatsDto(ageBand, 0, null, null, null, null, null, null,
+                        layout.histogram(histogram));
+            }
+            return new StudentGradeStatsDto(ageBand, count, sum / count, grades.firstKey(), grades.lastKey(),
+                    this.percentile(0.5), this.percentile(0.9), this.percentile(0.99), layout.histogram(histogram));
+        }
+
+        /**
+         * Linear interpolation between the closest ranks, same as percentile_cont.
+         */
+        private double percentile(double fraction) {
+            double position = fraction * (count - 1);
+            long lowerRank = (long) Math.floor(position);
+            long upperRank = (long) Math.ceil(position);
+            Double lower = null;
+            long seen = 0;
+            for (Map.Entry<Double, Long> entry : grades.entrySet()) {
+                seen += entry.getValue();
+                if (lower == null && seen > lowerRank) {
+                    lower = entry.getKey();
+                }
+                if (seen > upperRank) {
+                    return lower + (position - lowerRank) * (entry.getKey() - lower);
+                }
+            }
+            return grades.lastKey();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentLookupDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Uses the pg_trgm word similarity operator, which the GIN indexes from V3 can answer. Candidates
+ * are the rows above {@code pg_trgm.word_similarity_threshold} in any of the three columns.
+ */
+@Component
+@ConditionalOnProperty(name = "students.lookup.backend", havingValue = "postgres", matchIfMissing = true)
+public class PostgresStudentLookupIndex implements StudentLookupIndex {
+
+    private static final String LOOKUP = """
+            select id, full_name, email, address,
+                   greatest(word_similarity(?, full_name), word_similarity(?, email),
+                            word_similarity(?, coalesce(address, ''))) as score
+            from student
+            where ? <% full_name or ? <% email or ? <% address
+            order by score desc, id
+            limit ?
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<StudentLookupDto> lookup(String query, int limit) {
+        return jdbcTemplate.query(LOOKUP,
+                (resultSet, rowNum) -> new StudentLookupDto(resultSet.getInt("id"), resultSet.getString("full_name"),
+                        resultSet.getString("email"), resultSet.getString("address"), resultSet.getDouble("score")),
+                query, query, query, query, query, query, limit);
+    }
+}
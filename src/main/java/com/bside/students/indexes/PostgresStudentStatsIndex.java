@@ -0,0 +1,79 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentGradeStatsDto;
+import com.bside.students.dtos.StudentStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two aggregate queries over a single snapshot: one for count, mean, min, max and percentiles, one
+ * for the histogram. Grouping sets return the per band rows and the overall row in the same scan.
+ */
+@Component
+@ConditionalOnProperty(name = "students.stats.backend", havingValue = "postgres", matchIfMissing = true)
+public class PostgresStudentStatsIndex implements StudentStatsIndex {
+
+    private static final String SUMMARY = """
+            select band, grouping(band) as overall, count(*) as count, avg(grade) as mean,
+                   min(grade) as min, max(grade) as max,
+                   percentile_cont(array[0.5, 0.9, 0.99]) within group (order by grade) as percentiles
+            from (select width_bucket(age, %s) as band, grade from student) s
+            group by grouping sets ((band), ())
+            """;
+
+    private static final String HISTOGRAM = """
+            select band, grouping(band) as overall, bucket, count(*) as count
+            from (select width_bucket(age, %s) as band,
+                         least(greatest(width_bucket(grade, ?, ?, ?), 1), ?) as bucket
+                  from student) s
+            group by grouping sets ((band, bucket), (bucket))
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentStatsLayout layout;
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public StudentStatsDto stats() {
+        int bands = layout.bandCount();
+        // index bands is the overall row
+        long[][] histograms = new long[bands + 1][layout.getBuckets() + 1];
+        jdbcTemplate.query(HISTOGRAM.formatted(layout.ageBandsSql()), resultSet -> {
+            int band = resultSet.getInt("overall") == 1 ? bands : resultSet.getInt("band");
+            histograms[band][resultSet.getInt("bucket")] = resultSet.getLong("count");
+        }, layout.getGradeMin(), layout.getGradeMax(), layout.getBuckets(), layout.getBuckets());
+
+        StudentGradeStatsDto[] rows = new StudentGradeStatsDto[bands + 1];
+        jdbcTemplate.query(SUMMARY.formatted(layout.ageBandsSql()), resultSet -> {
+            boolean overall = resultSet.getInt("overall") == 1;
+            int band = overall ? bands : resultSet.getInt("band");
+            Double[] percentiles = new Double[3];
+            Array array = resultSet.getArray("percentiles");
+            if (array != null) {
+                percentiles = (Double[]) array.getArray();
+            }
+            rows[band] = new StudentGradeStatsDto(overall ? null : layout.bandLabel(band), resultSet.getLong("count"),
+                    resultSet.getObject("mean", Double.class), resultSet.getObject("min", Double.class),
+                    resultSet.getObject("max", Double.class), percentiles[0], percentiles[1], percentiles[2],
+                    layout.histogram(histograms[band]));
+        });
+
+        List<StudentGradeStatsDto> ageBands = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            ageBands.add(rows[band] != null ? rows[band] : new StudentGradeStatsDto(layout.bandLabel(band), 0,
+                    null, null, null, null, null, null, layout.histogram(histograms[band])));
+        }
+        return new StudentStatsDto(rows[bands], ageBands);
+    }
+}
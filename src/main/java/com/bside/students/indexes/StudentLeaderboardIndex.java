@@ -0,0 +1,195 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentRankDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Students ordered by grade descending and id ascending in a treap whose nodes carry their subtree
+ * size, so both the rank of a student and the first n positions are found in logarithmic time.
+ * Ranks follow competition ranking: students with the same grade share a rank and the next grade
+ * skips the tied positions (1, 2, 2, 4).
+ */
+@Component
+public class StudentLeaderboardIndex extends InMemoryStudentIndex<StudentLeaderboardIndex.LeaderboardState> {
+
+    @Override
+    protected LeaderboardState newState() {
+        return new LeaderboardState();
+    }
+
+    @Override
+    protected void apply(LeaderboardState state, Integer id, StudentDto student) {
+        Node previous = student == null ? state.nodes.remove(id)
+                : state.nodes.put(id, new Node(id, student.getFullName(), student.getGrade()));
+        if (previous != null) {
+            state.root = delete(state.root, previous);
+        }
+        if (student != null) {
+            state.root = insert(state.root, state.nodes.get(id));
+        }
+    }
+
+    public List<StudentRankDto> top(int n) {
+        return this.read(state -> {
+            List<StudentRankDto> top = new ArrayList<>(Math.min(n, size(state.root)));
+            Deque<Node> stack = new ArrayDeque<>();
+            Node node = state.root;
+            while (top.size() < n && (node != null || !stack.isEmpty())) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                long rank = top.isEmpty() || top.getLast().getGrade() != node.grade
+                        ? top.size() + 1 : top.getLast().getRank();
+                top.add(node.toDto(rank));
+                node = node.right;
+            }
+            return top;
+        });
+    }
+
+    public Optional<StudentRankDto> rank(Integer id) {
+        return this.read(state -> {
+            Node node = state.nodes.get(id);
+            if (node == null) {
+                return Optional.empty();
+            }
+            // Everyone with a better grade sorts before the smallest possible id at this grade
+            return Optional.of(node.toDto(countBefore(state.root, node.grade, Integer.MIN_VALUE) + 1));
+        });
+    }
+
+    private static int compare(double grade, int id, Node node) {
+        int byGrade = Double.compare(node.grade, grade);
+        return byGrade != 0 ? byGrade : Integer.compare(id, node.id);
+    }
+
+    private static long countBefore(Node root, double grade, int id) {
+        long count = 0;
+        Node node = root;
+        while (node != null) {
+            if (compare(grade, id, node) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node.grade, node.id, root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        update(root);
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        int comparison = compare(node.grade, node.id, root);
+        if (comparison == 0) {
+            return merge(root.left, root.right);
+        }
+        if (comparison < 0) {
+            root.left = delete(root.left, node);
+        } else {
+            root.right = delete(root.right, node);
+        }
+        update(root);
+        return root;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    static final class LeaderboardState {
+        private final Map<Integer, Node> nodes = new HashMap<>();
+        private Node root;
+    }
+
+    private static final class Node {
+        private final int id;
+        private final String fullName;
+        private final double grade;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(int id, String fullName, double grade) {
+            this.id = id;
+            this.fullName = fullName;
+            this.grade = grade;
+        }
+
+        private StudentRankDto toDto(long rank) {
+            return new StudentRankDto(rank, id, fullName, grade);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentLookupDto;
+
+import java.util.List;
+
+/**
+ * Ranked fuzzy matching over full name, email and address. The backend is picked with
+ * {@code students.lookup.backend}: {@code postgres} (pg_trgm GIN indexes) or {@code memory}
+ * (trigram inverted index kept in this node).
+ */
+public interface StudentLookupIndex {
+    List<StudentLookupDto> lookup(String query, int limit);
+}
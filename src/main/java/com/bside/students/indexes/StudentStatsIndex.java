@@ -0,0 +1,12 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentStatsDto;
+
+/**
+ * Grade statistics overall and by age band. The backend is picked with
+ * {@code students.stats.backend}: {@code postgres} (aggregates computed per request) or
+ * {@code memory} (running aggregates kept in this node).
+ */
+public interface StudentStatsIndex {
+    StudentStatsDto stats();
+}
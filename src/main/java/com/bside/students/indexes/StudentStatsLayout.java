@@ -0,0 +1,84 @@
+package com.bside.students.indexes;
+
+import com.bside.students.dtos.StudentGradeBucketDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Age bands and grade buckets shared by both stats backends. Band and bucket numbers follow
+ * Postgres width_bucket: band 0 is below the first boundary, buckets go from 1 to {@code buckets}
+ * and grades outside [grade-min, grade-max) are clamped into the first or last one.
+ */
+@Component
+public class StudentStatsLayout {
+
+    @Value("${students.stats.age-bands:18,25,35,50}")
+    private int[] ageBands;
+
+    @Value("${students.stats.grade-min:0}")
+    private double gradeMin;
+
+    @Value("${students.stats.grade-max:10}")
+    private double gradeMax;
+
+    @Value("${students.stats.buckets:10}")
+    private int buckets;
+
+    public int bandCount() {
+        return ageBands.length + 1;
+    }
+
+    public int band(int age) {
+        int band = Arrays.binarySearch(ageBands, age);
+        return band >= 0 ? band + 1 : -band - 1;
+    }
+
+    public String bandLabel(int band) {
+        if (band == 0) {
+            return "<" + ageBands[0];
+        }
+        if (band == ageBands.length) {
+            return ageBands[band - 1] + "+";
+        }
+        return ageBands[band - 1] + "-" + (ageBands[band] - 1);
+    }
+
+    public int bucket(double grade) {
+        int bucket = (int) Math.floor((grade - gradeMin) / (gradeMax - gradeMin) * buckets) + 1;
+        return Math.max(1, Math.min(bucket, buckets));
+    }
+
+    public List<StudentGradeBucketDto> histogram(long[] counts) {
+        double width = (gradeMax - gradeMin) / buckets;
+        List<StudentGradeBucketDto> histogram = new ArrayList<>(buckets);
+        for (int bucket = 1; bucket <= buckets; bucket++) {
+            histogram.add(new StudentGradeBucketDto(gradeMin + (bucket - 1) * width, gradeMin + bucket * width,
+                    counts[bucket]));
+        }
+        return histogram;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+
+    public double getGradeMin() {
+        return gradeMin;
+    }
+
+    public double getGradeMax() {
+        return gradeMax;
+    }
+
+    /**
+     * Array literal with the band boundaries; they are ints from configuration, so inlining is safe.
+     */
+    public String ageBandsSql() {
+        return Arrays.stream(ageBands).mapToObj(String::valueOf).collect(Collectors.joining(",", "array[", "]"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.bside.students.jfr;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.models.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * The Jackson converter Spring Boot would register, plus a {@link StudentSerializationEvent} for
+ * every body it writes.
+ */
+public class StudentJsonMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public StudentJsonMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        StudentSerializationEvent event = new StudentSerializationEvent(object.getClass().getSimpleName());
+        if (!event.isEnabled()) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        if (object instanceof Collection<?> collection) {
+            event.setBatchSize(collection.size());
+        } else if (object instanceof StudentPageDto<?> page) {
+            event.setBatchSize(page.getStudents().size());
+        } else if (object instanceof StudentDto studentDto && studentDto.getId() != null) {
+            event.setStudentId(studentDto.getId());
+        } else if (object instanceof Student student && student.getId() != null) {
+            event.setStudentId(student.getId());
+        }
+        event.begin();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.bside.students.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.bside.students.Mapping")
+@Label("Student Mapping")
+@Category("Students")
+@Description("Conversion between the Student entity and StudentDto")
+@StackTrace(false)
+public class StudentMappingEvent extends Event {
+
+    @Label("Direction")
+    String direction;
+
+    @Label("Student Id")
+    int studentId;
+
+    public StudentMappingEvent(String direction, Integer studentId) {
+        this.direction = direction;
+        this.studentId = studentId == null ? 0 : studentId;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bside.students.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.bside.students.Repository")
+@Label("Student Repository Call")
+@Category("Students")
+@Description("A StudentRepository call made by the student service")
+@StackTrace(false)
+public class StudentRepositoryEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Student Id")
+    int studentId;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    public StudentRepositoryEvent(String operation, Integer studentId, int batchSize) {
+        this.operation = operation;
+        this.studentId = studentId == null ? 0 : studentId;
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
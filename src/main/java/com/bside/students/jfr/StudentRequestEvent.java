@@ -0,0 +1,55 @@
+package com.bside.students.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.bside.students.Request")
+@Label("Student Request")
+@Category("Students")
+@Description("A v1/students request, from the handler lookup until the response is complete")
+@StackTrace(false)
+public class StudentRequestEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("HTTP Method")
+    String method;
+
+    @Label("URI")
+    String uri;
+
+    @Label("Student Id")
+    int studentId;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Status")
+    int status;
+
+    public StudentRequestEvent(String operation, String method) {
+        this.operation = operation;
+        this.method = method;
+    }
+
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+}
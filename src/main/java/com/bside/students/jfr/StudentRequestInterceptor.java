@@ -0,0 +1,52 @@
+package com.bside.students.jfr;
+
+import com.bside.students.controllers.StudentController;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Opens a {@link StudentRequestEvent} for every StudentController call and commits it when the
+ * request completes. The open event is kept as a request attribute so later phases, like
+ * {@link StudentRequestBodyAdvice}, can fill in the batch size.
+ */
+public class StudentRequestInterceptor implements HandlerInterceptor {
+
+    static final String EVENT_ATTRIBUTE = StudentRequestInterceptor.class.getName() + ".event";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && handlerMethod.getBeanType() == StudentController.class) {
+            StudentRequestEvent event = new StudentRequestEvent(handlerMethod.getMethod().getName(), request.getMethod());
+            if (event.isEnabled()) {
+                event.begin();
+                request.setAttribute(EVENT_ATTRIBUTE, event);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(EVENT_ATTRIBUTE) instanceof StudentRequestEvent event)) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        event.setUri(pattern == null ? request.getRequestURI() : pattern.toString());
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("id") instanceof String id) {
+            try {
+                event.setStudentId(Integer.parseInt(id));
+            } catch (NumberFormatException e) {
+                // Rejected by the controller anyway, keep the id empty
+            }
+        }
+        event.setStatus(response.getStatus());
+        event.commit();
+    }
+}
@@ -0,0 +1,37 @@
+package com.bside.students.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.bside.students.Serialization")
+@Label("Student Serialization")
+@Category("Students")
+@Description("JSON serialization of a response body, or a whole NDJSON export including the row reads it interleaves with")
+@StackTrace(false)
+public class StudentSerializationEvent extends Event {
+
+    @Label("Type")
+    String type;
+
+    @Label("Student Id")
+    int studentId;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    public StudentSerializationEvent(String type) {
+        this.type = type;
+    }
+
+    public void setStudentId(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bside.students.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.bside.students.Validation")
+@Label("Student Validation")
+@Category("Students")
+@Description("Bean validation of a request body or of one item of a batch")
+@StackTrace(false)
+public class StudentValidationEvent extends Event {
+
+    @Label("Target")
+    String target;
+
+    @Label("Student Id")
+    int studentId;
+
+    @Label("Errors")
+    int errors;
+
+    public StudentValidationEvent(String target, Integer studentId) {
+        this.target = target;
+        this.studentId = studentId == null ? 0 : studentId;
+    }
+
+    public void setErrors(int errors) {
+        this.errors = errors;
+    }
+}
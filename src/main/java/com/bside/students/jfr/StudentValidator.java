@@ -0,0 +1,42 @@
+package com.bside.students.jfr;
+
+import com.bside.students.dtos.StudentDto;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Wraps the MVC validator to record a {@link StudentValidationEvent} for every {@code @Valid}
+ * request body.
+ */
+public class StudentValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+
+    public StudentValidator(SmartValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        this.validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        StudentValidationEvent event = new StudentValidationEvent(target.getClass().getSimpleName(),
+                target instanceof StudentDto studentDto ? studentDto.getId() : null);
+        event.begin();
+        int before = errors.getErrorCount();
+        try {
+            delegate.validate(target, errors, validationHints);
+        } finally {
+            event.setErrors(errors.getErrorCount() - before);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.bside.students.logging;
+
+import com.bside.students.metrics.SqlStatementStats;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every request with a correlation id, taken from the {@value #CORRELATION_HEADER} header when
+ * the caller sends a valid one, and writes one summary event per request to the
+ * {@value #LOGGER_NAME} logger. Failed and slow requests are always logged; successful ones are
+ * sampled with {@code students.logging.request.success-sample-rate}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "students.logging.request.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_HEADER = "X-Correlation-Id";
+    public static final String CORRELATION_KEY = "correlationId";
+    static final String LOGGER_NAME = "com.bside.students.requests";
+
+    private static final Logger log = LogManager.getLogger(LOGGER_NAME);
+    private static final Pattern VALID_CORRELATION_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Value("${students.logging.request.success-sample-rate:1.0}")
+    private double successSampleRate;
+
+    @Value("${students.logging.request.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${students.sql.profiling.enabled:true}")
+    private boolean sqlProfilingEnabled;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = this.correlationId(request);
+        ThreadContext.put(CORRELATION_KEY, correlationId);
+        response.setHeader(CORRELATION_HEADER, correlationId);
+
+        // Started here so the stats are still readable once the chain returns; SqlProfilingFilter joins them
+        boolean started = sqlProfilingEnabled && SqlStatementStats.current() == null;
+        SqlStatementStats stats = started ? SqlStatementStats.start() : SqlStatementStats.current();
+        long start = System.nanoTime();
+        Throwable failure = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            if (started) {
+                SqlStatementStats.stop();
+            }
+            try {
+                int status = failure == null ? response.getStatus() : HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+                Level level = status >= 500 ? Level.ERROR : status >= 400 ? Level.WARN : Level.INFO;
+                if (this.shouldLog(level, elapsedNanos)) {
+                    this.write(request, level, status, elapsedNanos, stats, failure);
+                }
+            } finally {
+                ThreadContext.remove(CORRELATION_KEY);
+            }
+        }
+    }
+
+    private String correlationId(HttpServletRequest request) {
+        String header = request.getHeader(CORRELATION_HEADER);
+        if (header != null && VALID_CORRELATION_ID.matcher(header).matches()) {
+            return header;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+    }
+
+    private boolean shouldLog(Level level, long elapsedNanos) {
+        if (!log.isEnabled(level)) {
+            return false;
+        }
+        if (level != Level.INFO || elapsedNanos >= slowThresholdMs * 1_000_000) {
+            return true;
+        }
+        return successSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < successSampleRate;
+    }
+
+    private void write(HttpServletRequest request, Level level, int status, long elapsedNanos,
+                       SqlStatementStats stats, Throwable failure) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringMapMessage event = new StringMapMessage()
+                .with("event", "request")
+                .with("method", request.getMethod())
+                .with("uri", pattern == null ? request.getRequestURI() : pattern.toString())
+                .with("status", status)
+                .with("durationMs", elapsedNanos / 1_000_000.0);
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler) {
+            event.with("operation", handler.getMethod().getName());
+        }
+        if (stats != null) {
+            event.with("sqlStatements", stats.getStatements())
+                    .with("sqlTimeMs", stats.getNanos() / 1_000_000.0);
+            if (stats.getCoalesced() > 0) {
+                event.with("sqlCoalesced", stats.getCoalesced());
+            }
+        }
+        if (failure != null) {
+            event.with("error", failure.getClass().getName());
+        }
+        log.log(level, event);
+    }
+}
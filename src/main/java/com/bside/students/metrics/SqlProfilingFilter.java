@@ -0,0 +1,66 @@
+package com.bside.students.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the statements of each request and records them per endpoint as
+ * {@code students.sql.statements} and {@code students.sql.time}. The response headers are added by
+ * {@link SqlProfilingResponseAdvice}, before the body is written.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "students.sql.profiling.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlProfilingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Join the stats of a caller that already started them, as the statement count tests do
+        boolean started = SqlStatementStats.current() == null;
+        SqlStatementStats stats = started ? SqlStatementStats.start() : SqlStatementStats.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (started) {
+                SqlStatementStats.stop();
+            }
+            this.record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        meterRegistry.ifAvailable(registry -> {
+            DistributionSummary.builder("students.sql.statements")
+                    .description("SQL statements per request")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(registry)
+                    .record(stats.getStatements());
+            Timer.builder("students.sql.time")
+                    .description("Time spent in SQL statements per request")
+                    .tags("method", request.getMethod(), "uri", uri)
+                    .register(registry)
+                    .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package com.bside.students.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Feeds {@link SqlStatementStats} and logs slow and repeated statements. A statement is slow when
+ * it takes longer than the threshold; it is reported as a possible N+1 when the same SQL text runs
+ * {@code repeatedThreshold} times within one request.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final Logger log = LogManager.getLogger(SqlStatementListener.class);
+
+    private final long slowThresholdNanos;
+    private final int repeatedThreshold;
+
+    public SqlStatementListener(long slowThresholdMillis, int repeatedThreshold) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.repeatedThreshold = repeatedThreshold;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String query = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+
+        if (elapsedNanos >= slowThresholdNanos) {
+            log.warn("Slow query took {} ms{}: {} {}", execInfo.getElapsedTime(),
+                    execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "", query,
+                    this.parameters(queryInfoList));
+        }
+
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null && stats.record(query, elapsedNanos) == repeatedThreshold) {
+            log.warn("Possible N+1, the same statement ran {} times in one request: {}", repeatedThreshold, query);
+        }
+    }
+
+    private String parameters(List<QueryInfo> queryInfoList) {
+        return queryInfoList.stream()
+                .flatMap(queryInfo -> queryInfo.getParametersList().stream())
+                .map(parameters -> parameters.stream()
+                        .map(SqlStatementListener::parameter)
+                        .collect(Collectors.joining(", ", "[", "]")))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String parameter(ParameterSetOperation parameter) {
+        // The second argument of setNull and registerOutParameter is a SQL type code, not a value
+        if (ParameterSetOperation.isSetNullParameterOperation(parameter)
+                || ParameterSetOperation.isRegisterOutParameterOperation(parameter)) {
+            return parameter.getMethod().getName();
+        }
+        return String.valueOf(parameter.getArgs()[1]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.bside.students.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements run by the current thread since {@link #start()}. A batch counts as one statement,
+ * since it is one round trip. Only the first {@value #MAX_TRACKED_QUERIES} distinct SQL texts are
+ * kept, which is enough to spot repeated statements without holding on to every query of an
+ * export.
+ * <p>
+ * A read that joins an identical query already running for another request runs no statement of
+ * its own, so it reports none here; {@link #getCoalesced()} tells how many reads were served that
+ * way, so a burst of zero-statement responses can be told apart from a cache hit.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+    private static final int MAX_TRACKED_QUERIES = 100;
+
+    private final Map<String, Integer> queries = new LinkedHashMap<>();
+    private int statements;
+    private long nanos;
+    private int coalesced;
+
+    private SqlStatementStats() {
+    }
+
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns how many times this SQL text has run so far, including this execution.
+     */
+    int record(String query, long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+        Integer count = queries.get(query);
+        if (count != null) {
+            queries.put(query, count + 1);
+            return count + 1;
+        }
+        if (queries.size() < MAX_TRACKED_QUERIES) {
+            queries.put(query, 1);
+        }
+        return 1;
+    }
+
+    /**
+     * Records a read answered by another request's query, whose statements were counted there.
+     */
+    public void recordCoalesced() {
+        coalesced++;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public int getCoalesced() {
+        return coalesced;
+    }
+
+    public Map<String, Integer> getQueries() {
+        return Collections.unmodifiableMap(queries);
+    }
+}
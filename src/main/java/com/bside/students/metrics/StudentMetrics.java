@@ -0,0 +1,13 @@
+package com.bside.students.metrics;
+
+public final class StudentMetrics {
+    /** Timer of every public service method, tagged with class, method and exception */
+    public static final String SERVICE = "students.service";
+    /** Counter of the errors answered by GlobalExceptionHandler, tagged with exception and status */
+    public static final String ERRORS = "students.errors";
+    /** Counter of the reads that joined an identical in-flight query, tagged with operation */
+    public static final String COALESCED = "students.coalesced";
+
+    private StudentMetrics() {
+    }
+}
@@ -0,0 +1,138 @@
+package com.bside.students.repositories;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPatchDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@link StudentRepository} for the reactive profile. The statements mirror the
+ * JPQL ones so both variants keep the same version and keyset semantics on the same table.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveStudentRepository {
+
+    private static final String COLUMNS = "id, full_name, age, email, address, grade, version";
+    private static final String VERSION_MATCHES = "(cast(:version as bigint) is null or version = :version)";
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    // Hibernate's pooled optimizer reads each sequence value as the top of a block of 50 ids, so a
+    // value taken here is never handed out by the JPA side; the rest of that block is left unused
+    private static final String INSERT = "insert into student (" + COLUMNS + ") " +
+            "values (nextval('student_seq'), :fullName, :age, :email, :address, :grade, 0) returning " + COLUMNS;
+
+    private static final String UPDATE = "update student set full_name = :fullName, age = :age, email = :email, " +
+            "address = :address, grade = :grade, version = coalesce(version, 0) + 1 " +
+            "where id = :id and " + VERSION_MATCHES + " returning " + COLUMNS;
+
+    private static final String PATCH = "update student set full_name = coalesce(:fullName, full_name), " +
+            "age = coalesce(:age, age), email = coalesce(:email, email), address = coalesce(:address, address), " +
+            "grade = coalesce(:grade, grade), version = coalesce(version, 0) + 1 " +
+            "where id = :id and " + VERSION_MATCHES + " returning " + COLUMNS;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<StudentDto> insert(StudentDto studentDto) {
+        GenericExecuteSpec spec = databaseClient.sql(INSERT)
+                .bind("fullName", studentDto.getFullName())
+                .bind("age", studentDto.getAge())
+                .bind("email", studentDto.getEmail())
+                .bind("grade", studentDto.getGrade());
+        return bindNullable(spec, "address", studentDto.getAddress(), String.class)
+                .map(ReactiveStudentRepository::toDto)
+                .one();
+    }
+
+    public Flux<StudentDto> findPageAfter(Integer after, int limit) {
+        return databaseClient.sql("select " + COLUMNS + " from student where id > :after order by id limit :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveStudentRepository::toDto)
+                .all();
+    }
+
+    public Mono<StudentDto> findById(Integer id) {
+        return databaseClient.sql("select " + COLUMNS + " from student where id = :id")
+                .bind("id", id)
+                .map(ReactiveStudentRepository::toDto)
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Integer id) {
+        return databaseClient.sql("select exists(select 1 from student where id = :id)")
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    /**
+     * Streams the whole table in id order. Rows are pulled from the server in portions of
+     * {@value #EXPORT_FETCH_SIZE} as the subscriber requests them, so a slow consumer holds the
+     * cursor back instead of buffering the table.
+     */
+    public Flux<StudentDto> streamAll() {
+        return databaseClient.sql("select " + COLUMNS + " from student order by id")
+                .filter(statement -> statement.fetchSize(EXPORT_FETCH_SIZE))
+                .map(ReactiveStudentRepository::toDto)
+                .all();
+    }
+
+    public Mono<StudentDto> updateById(Integer id, StudentDto studentDto, Long version) {
+        GenericExecuteSpec spec = databaseClient.sql(UPDATE)
+                .bind("id", id)
+                .bind("fullName", studentDto.getFullName())
+                .bind("age", studentDto.getAge())
+                .bind("email", studentDto.getEmail())
+                .bind("grade", studentDto.getGrade());
+        spec = bindNullable(spec, "address", studentDto.getAddress(), String.class);
+        return bindNullable(spec, "version", version, Long.class)
+                .map(ReactiveStudentRepository::toDto)
+                .one();
+    }
+
+    public Mono<StudentDto> patchById(Integer id, StudentPatchDto studentPatchDto, Long version) {
+        GenericExecuteSpec spec = databaseClient.sql(PATCH).bind("id", id);
+        spec = bindNullable(spec, "fullName", studentPatchDto.getFullName(), String.class);
+        spec = bindNullable(spec, "age", studentPatchDto.getAge(), Integer.class);
+        spec = bindNullable(spec, "email", studentPatchDto.getEmail(), String.class);
+        spec = bindNullable(spec, "address", studentPatchDto.getAddress(), String.class);
+        spec = bindNullable(spec, "grade", studentPatchDto.getGrade(), Double.class);
+        return bindNullable(spec, "version", version, Long.class)
+                .map(ReactiveStudentRepository::toDto)
+                .one();
+    }
+
+    public Mono<Long> removeById(Integer id, Long version) {
+        GenericExecuteSpec spec = databaseClient.sql("delete from student where id = :id and " + VERSION_MATCHES)
+                .bind("id", id);
+        return bindNullable(spec, "version", version, Long.class)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Void> notify(String channel, String payload) {
+        return databaseClient.sql("select pg_notify(:channel, :payload)")
+                .bind("channel", channel)
+                .bind("payload", payload)
+                .then();
+    }
+
+    private static GenericExecuteSpec bindNullable(GenericExecuteSpec spec, String name, Object value, Class<?> type) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static StudentDto toDto(Readable row) {
+        Double grade = row.get("grade", Double.class);
+        return new StudentDto(row.get("id", Integer.class), row.get("full_name", String.class),
+                row.get("age", Integer.class), row.get("email", String.class), row.get("address", String.class),
+                grade == null ? 0 : grade, row.get("version", Long.class));
+    }
+}
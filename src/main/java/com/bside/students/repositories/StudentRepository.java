@@ -1,10 +1,41 @@
 package com.bside.students.repositories;
 
+import com.bside.students.dtos.StudentDto;
 import com.bside.students.models.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Integer> {
+public interface StudentRepository extends JpaRepository<Student, Integer>, StudentRepositoryCustom {
+
+    String STUDENT_DTO = "new com.bside.students.dtos.StudentDto(s.id, s.fullName, s.age, s.email, s.address, " +
+            "s.grade, s.version)";
+
+    @Query("select " + STUDENT_DTO + " from Student s where s.id > :after order by s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<StudentDto> findPageAfter(@Param("after") Integer after, Limit limit);
+
+    @Query("select " + STUDENT_DTO + " from Student s where s.id in :ids")
+    List<StudentDto> findProjectedByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("select " + STUDENT_DTO + " from Student s order by s.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<StudentDto> streamAll();
 
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Student s where s.id = :id and (:version is null or s.version = :version)")
+    int removeById(@Param("id") Integer id, @Param("version") Long version);
 }
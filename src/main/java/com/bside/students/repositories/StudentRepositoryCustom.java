@@ -0,0 +1,19 @@
+package com.bside.students.repositories;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.models.Student;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface StudentRepositoryCustom {
+    List<Student> insertAll(List<Student> students);
+    Optional<Long> updateById(Integer id, String fullName, int age, String email, String address, double grade,
+                              Long version);
+    Optional<StudentDto> patchById(Integer id, String fullName, Integer age, String email, String address,
+                                   Double grade, Long version);
+    List<Map<String, Object>> findFieldsAfter(List<String> fields, Integer after, int limit);
+    List<StudentDto> search(Specification<Student> specification, int limit);
+}
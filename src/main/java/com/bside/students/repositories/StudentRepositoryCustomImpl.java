@@ -0,0 +1,166 @@
+package com.bside.students.repositories;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.models.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.action.internal.BulkOperationCleanupAction;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    private static final String COLUMNS = "id, full_name, age, email, address, grade, version";
+    private static final String VERSION_MATCHES = "(cast(:version as bigint) is null or version = :version)";
+
+    private static final String UPDATE = "update student set full_name = :fullName, age = :age, email = :email, " +
+            "address = :address, grade = :grade, version = coalesce(version, 0) + 1 " +
+            "where id = :id and " + VERSION_MATCHES + " returning version";
+
+    private static final String PATCH = "update student set full_name = coalesce(:fullName, full_name), " +
+            "age = coalesce(:age, age), email = coalesce(:email, email), address = coalesce(:address, address), " +
+            "grade = coalesce(:grade, grade), version = coalesce(version, 0) + 1 " +
+            "where id = :id and " + VERSION_MATCHES + " returning " + COLUMNS;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public List<Student> insertAll(List<Student> students) {
+        for (Student student : students) {
+            entityManager.persist(student);
+        }
+        // Flush so the inserts go out as JDBC batches, then drop the entities from the context
+        entityManager.flush();
+        entityManager.clear();
+        return students;
+    }
+
+    /**
+     * Replaces every field of a student and returns its new version, or empty when no row matched.
+     * The version comes back from the update itself, so it is always the one this update wrote.
+     */
+    @Override
+    @Transactional
+    public Optional<Long> updateById(Integer id, String fullName, int age, String email, String address,
+                                     double grade, Long version) {
+        List<Tuple> rows = this.returning(entityManager.createNativeQuery(UPDATE, Tuple.class)
+                .setParameter("id", id)
+                .setParameter("fullName", new TypedParameterValue<>(StandardBasicTypes.STRING, fullName))
+                .setParameter("age", age)
+                .setParameter("email", new TypedParameterValue<>(StandardBasicTypes.STRING, email))
+                .setParameter("address", new TypedParameterValue<>(StandardBasicTypes.STRING, address))
+                .setParameter("grade", grade)
+                .setParameter("version", new TypedParameterValue<>(StandardBasicTypes.LONG, version)));
+        return rows.stream().findFirst().map(row -> row.get("version", Long.class));
+    }
+
+    /**
+     * Replaces the non-null fields of a student and returns the patched row, or empty when no row
+     * matched. The row comes back from the update itself, so it is the state this patch wrote.
+     */
+    @Override
+    @Transactional
+    public Optional<StudentDto> patchById(Integer id, String fullName, Integer age, String email, String address,
+                                          Double grade, Long version) {
+        List<Tuple> rows = this.returning(entityManager.createNativeQuery(PATCH, Tuple.class)
+                .setParameter("id", id)
+                .setParameter("fullName", new TypedParameterValue<>(StandardBasicTypes.STRING, fullName))
+                .setParameter("age", new TypedParameterValue<>(StandardBasicTypes.INTEGER, age))
+                .setParameter("email", new TypedParameterValue<>(StandardBasicTypes.STRING, email))
+                .setParameter("address", new TypedParameterValue<>(StandardBasicTypes.STRING, address))
+                .setParameter("grade", new TypedParameterValue<>(StandardBasicTypes.DOUBLE, grade))
+                .setParameter("version", new TypedParameterValue<>(StandardBasicTypes.LONG, version)));
+        return rows.stream().findFirst().map(StudentRepositoryCustomImpl::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsAfter(List<String> fields, Integer after, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Student> root = query.from(Student.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections)
+                .where(criteriaBuilder.greaterThan(root.<Integer>get("id"), after))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit)
+                .getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StudentDto> search(Specification<Student> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StudentDto> query = criteriaBuilder.createQuery(StudentDto.class);
+        Root<Student> root = query.from(Student.class);
+
+        query.select(criteriaBuilder.construct(StudentDto.class, root.get("id"), root.get("fullName"),
+                root.get("age"), root.get("email"), root.get("address"), root.get("grade"), root.get("version")));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Runs an {@code update ... returning} statement. Hibernate only sees a native query that returns
+     * rows, so the write is registered the way its own bulk updates are: the student query spaces are
+     * invalidated and the cached students evicted when the transaction completes.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Tuple> returning(Query query) {
+        List<Tuple> rows = query.getResultList();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BulkOperationCleanupAction.schedule(session,
+                session.getFactory().getMappingMetamodel().getEntityDescriptor(Student.class));
+        entityManager.clear();
+        return rows;
+    }
+
+    private static StudentDto toDto(Tuple row) {
+        return new StudentDto(row.get("id", Integer.class), row.get("full_name", String.class),
+                row.get("age", Integer.class), row.get("email", String.class), row.get("address", String.class),
+                row.get("grade", Double.class), row.get("version", Long.class));
+    }
+}
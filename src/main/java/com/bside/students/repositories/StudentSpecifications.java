@@ -0,0 +1,66 @@
+package com.bside.students.repositories;
+
+import com.bside.students.models.Student;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+public final class StudentSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private StudentSpecifications() {}
+
+    public static Specification<Student> idGreaterThan(Integer id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    public static Specification<Student> ageBetween(Integer min, Integer max) {
+        return (root, query, criteriaBuilder) -> {
+            if (min != null && max != null) {
+                return criteriaBuilder.between(root.get("age"), min, max);
+            }
+            if (min != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("age"), min);
+            }
+            return max == null ? null : criteriaBuilder.lessThanOrEqualTo(root.get("age"), max);
+        };
+    }
+
+    public static Specification<Student> gradeBetween(Double min, Double max) {
+        return (root, query, criteriaBuilder) -> {
+            if (min != null && max != null) {
+                return criteriaBuilder.between(root.get("grade"), min, max);
+            }
+            if (min != null) {
+                return criteriaBuilder.greaterThanOrEqualTo(root.get("grade"), min);
+            }
+            return max == null ? null : criteriaBuilder.lessThanOrEqualTo(root.get("grade"), max);
+        };
+    }
+
+    /**
+     * Matches lower(email) against the prefix so the lower(email) text_pattern_ops index can be used.
+     */
+    public static Specification<Student> emailStartsWith(String prefix) {
+        return startsWith("email", prefix);
+    }
+
+    public static Specification<Student> fullNameStartsWith(String prefix) {
+        return startsWith("fullName", prefix);
+    }
+
+    private static Specification<Student> startsWith(String attribute, String prefix) {
+        return (root, query, criteriaBuilder) -> {
+            if (prefix == null || prefix.isBlank()) {
+                return null;
+            }
+            String pattern = escapeLike(prefix.trim().toLowerCase(Locale.ROOT)) + "%";
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get(attribute)), pattern, LIKE_ESCAPE);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,18 @@
+package com.bside.students.services;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveStudentService {
+    Mono<StudentDto> create(StudentDto studentDto);
+    Mono<StudentPageDto<StudentDto>> getAll(Integer after, Integer limit);
+    Flux<StudentDto> stream(Integer after, Integer limit);
+    Mono<StudentDto> getById(Integer id);
+    Flux<StudentDto> export();
+    Mono<StudentDto> update(Integer id, StudentDto studentDto, Long expectedVersion);
+    Mono<StudentDto> patch(Integer id, StudentPatchDto studentPatchDto, Long expectedVersion);
+    Mono<Void> delete(Integer id, Long expectedVersion);
+}
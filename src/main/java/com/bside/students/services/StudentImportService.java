@@ -0,0 +1,10 @@
+package com.bside.students.services;
+
+import com.bside.students.dtos.StudentImportResultDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StudentImportService {
+    StudentImportResultDto importCsv(InputStream inputStream) throws IOException;
+}
@@ -0,0 +1,11 @@
+package com.bside.students.services;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.dtos.StudentRankDto;
+
+import java.util.List;
+
+public interface StudentLeaderboardService {
+    List<StudentRankDto> getTop(Integer n);
+    StudentRankDto getRank(Integer id) throws ResourceNotFoundException;
+}
@@ -0,0 +1,9 @@
+package com.bside.students.services;
+
+import com.bside.students.dtos.StudentLookupDto;
+
+import java.util.List;
+
+public interface StudentLookupService {
+    List<StudentLookupDto> lookup(String query, Integer limit);
+}
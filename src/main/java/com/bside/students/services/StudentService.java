@@ -1,16 +1,33 @@
 package com.bside.students.services;
 
+import com.bside.errors.PreconditionFailedException;
 import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.caches.StudentListingSnapshot;
+import com.bside.students.dtos.StudentBatchResultDto;
 import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentSearchDto;
 import com.bside.students.models.Student;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface StudentService {
     Student create(StudentDto studentDto) throws Exception;
-    List<StudentDto> getAll();
-    Optional<Student> update(Integer id, StudentDto studentDto) throws ResourceNotFoundException, Exception;
-    void delete(Integer id) throws ResourceNotFoundException, Exception;;
+    StudentBatchResultDto createBatch(List<StudentDto> studentsDto);
+    StudentPageDto<StudentDto> getAll(Integer after, Integer limit);
+    StudentPageDto<Map<String, Object>> getAll(Integer after, Integer limit, List<String> fields);
+    Optional<StudentListingSnapshot> getListingSnapshot();
+    StudentPageDto<StudentDto> search(StudentSearchDto studentSearchDto, Integer after, Integer limit);
+    StudentDto getById(Integer id) throws ResourceNotFoundException;
+    long export(Consumer<StudentDto> consumer);
+    Optional<Student> update(Integer id, StudentDto studentDto, Long expectedVersion)
+            throws ResourceNotFoundException, PreconditionFailedException, Exception;
+    Long patch(Integer id, StudentPatchDto studentPatchDto, Long expectedVersion)
+            throws ResourceNotFoundException, PreconditionFailedException;
+    void delete(Integer id, Long expectedVersion) throws ResourceNotFoundException, PreconditionFailedException, Exception;
 }
 
@@ -0,0 +1,7 @@
+package com.bside.students.services;
+
+import com.bside.students.dtos.StudentStatsDto;
+
+public interface StudentStatsService {
+    StudentStatsDto getStats();
+}
@@ -0,0 +1,12 @@
+package com.bside.students.services;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.errors.TooManyRequestsException;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentWriteStatusDto;
+
+public interface StudentWriteBehindService {
+    boolean isEnabled();
+    StudentWriteStatusDto enqueue(StudentDto studentDto) throws TooManyRequestsException;
+    StudentWriteStatusDto getStatus(String token) throws ResourceNotFoundException;
+}
@@ -0,0 +1,91 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.BadRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader that returns one record at a time, so only the current row is kept in memory.
+ */
+final class CsvRowReader {
+    private static final int NONE = -2;
+
+    private final Reader reader;
+    private final int maxRowLength;
+    private final StringBuilder field = new StringBuilder();
+    private int pending = NONE;
+    private long row;
+
+    CsvRowReader(Reader reader, int maxRowLength) {
+        this.reader = reader;
+        this.maxRowLength = maxRowLength;
+    }
+
+    long getRow() {
+        return row;
+    }
+
+    List<String> next() throws IOException {
+        int c = this.read();
+        if (c == -1) {
+            return null;
+        }
+        row++;
+
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        int length = 0;
+        while (true) {
+            if (++length > maxRowLength) {
+                throw new BadRequestException("The row " + row + " exceeds " + maxRowLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new BadRequestException("The row " + row + " has an unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = this.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == -1) {
+                if (c == '\r') {
+                    int next = this.read();
+                    if (next != '\n') {
+                        pending = next;
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = this.read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != NONE) {
+            int c = pending;
+            pending = NONE;
+            return c;
+        }
+        return reader.read();
+    }
+}
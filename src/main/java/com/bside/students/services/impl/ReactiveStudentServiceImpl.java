@@ -0,0 +1,186 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.PreconditionFailedException;
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.caches.StudentCacheNotifier;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.repositories.ReactiveStudentRepository;
+import com.bside.students.services.ReactiveStudentService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking implementation of the student operations for the reactive profile. Writes go through
+ * R2DBC and then feed the same local cache, in-memory indexes and NOTIFY channel as the servlet
+ * variant, so both kinds of node can run against the same database.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveStudentServiceImpl implements ReactiveStudentService {
+
+    private static final Logger log = LogManager.getLogger(ReactiveStudentServiceImpl.class);
+
+    @Autowired
+    private ReactiveStudentRepository reactiveStudentRepository;
+
+    @Autowired
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${students.pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${students.pagination.max-limit:500}")
+    private int maxLimit;
+
+    @Override
+    public Mono<StudentDto> create(StudentDto studentDto) {
+        log.info("[START] Init service to create student");
+        return reactiveStudentRepository.insert(studentDto)
+                .flatMap(student -> this.changed(student.getId(), StudentChangedEvent.created(student))
+                        .thenReturn(student))
+                .doOnSuccess(student -> log.info("Success save entity student"))
+                .doOnError(e -> {
+                    log.error("Error saving student");
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Mono<StudentPageDto<StudentDto>> getAll(Integer after, Integer limit) {
+        log.info("[START] Init service to get all students");
+        int pageSize = this.resolveLimit(limit);
+        int cursor = after == null ? 0 : after;
+        return reactiveStudentRepository.findPageAfter(cursor, pageSize + 1)
+                .collectList()
+                .map(students -> {
+                    List<StudentDto> page = students.size() > pageSize ? students.subList(0, pageSize) : students;
+                    Integer nextCursor = students.size() > pageSize ? page.getLast().getId() : null;
+                    return new StudentPageDto<>(page, nextCursor, pageSize);
+                })
+                .doOnSuccess(page -> log.info("Success get all students"))
+                .doOnError(e -> {
+                    log.error("Error obtaining students");
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Flux<StudentDto> stream(Integer after, Integer limit) {
+        log.info("[START] Init service to stream students");
+        return reactiveStudentRepository.findPageAfter(after == null ? 0 : after, this.resolveLimit(limit))
+                .doOnError(e -> {
+                    log.error("Error streaming students");
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Mono<StudentDto> getById(Integer id) {
+        log.info("[START] Init service to get student");
+        return reactiveStudentRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("The student with id: " + id + " not found")))
+                .doOnError(e -> {
+                    log.error("Error obtaining student with id: {}", id);
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Flux<StudentDto> export() {
+        log.info("[START] Init service to export students");
+        return reactiveStudentRepository.streamAll()
+                .doOnError(e -> {
+                    log.error("Error exporting students");
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Mono<StudentDto> update(Integer id, StudentDto studentDto, Long expectedVersion) {
+        log.info("[START] Init service to update student");
+        return reactiveStudentRepository.updateById(id, studentDto, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> this.writeFailure(id, expectedVersion)))
+                .flatMap(student -> this.changed(id, StudentChangedEvent.updated(id, student)).thenReturn(student))
+                .doOnSuccess(student -> log.info("Success update entity student with id {}", id))
+                .doOnError(e -> {
+                    log.error("Error saving student with id: {}", id);
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Mono<StudentDto> patch(Integer id, StudentPatchDto studentPatchDto, Long expectedVersion) {
+        log.info("[START] Init service to patch student");
+        return reactiveStudentRepository.patchById(id, studentPatchDto, expectedVersion)
+                .switchIfEmpty(Mono.defer(() -> this.writeFailure(id, expectedVersion)))
+                .flatMap(student -> this.changed(id, StudentChangedEvent.updated(id, student)).thenReturn(student))
+                .doOnSuccess(student -> log.info("Success patch entity student with id {}", id))
+                .doOnError(e -> {
+                    log.error("Error patching student with id: {}", id);
+                    log.error(e);
+                });
+    }
+
+    @Override
+    public Mono<Void> delete(Integer id, Long expectedVersion) {
+        log.info("[START] Init service to delete student");
+        return reactiveStudentRepository.removeById(id, expectedVersion)
+                .flatMap(deleted -> deleted == 0
+                        ? this.<Void>writeFailure(id, expectedVersion)
+                        : this.changed(id, StudentChangedEvent.deleted(id)))
+                .doOnSuccess(ignored -> log.info("Success delete entity student with id: {}", id))
+                .doOnError(e -> {
+                    log.error("Error deleting student with id: {}", id);
+                    log.error(e);
+                });
+    }
+
+    /**
+     * Same bookkeeping the servlet service does after a write: evict the local cache entry, update
+     * the in-memory indexes and tell the other nodes. The events always carry the row returned by
+     * the statement, so the index listeners never go back to the blocking repository from here.
+     */
+    private Mono<Void> changed(Integer id, StudentChangedEvent event) {
+        studentCacheNotifier.evict(id);
+        eventPublisher.publishEvent(event);
+        if (!studentCacheNotifier.isEnabled()) {
+            return Mono.empty();
+        }
+        return reactiveStudentRepository.notify(studentCacheNotifier.getChannel(),
+                        studentCacheNotifier.getNodeId() + ":" + id)
+                .onErrorResume(e -> {
+                    log.error("Error publishing cache invalidation for student with id: {}", id);
+                    log.error(e);
+                    return Mono.empty();
+                });
+    }
+
+    private <T> Mono<T> writeFailure(Integer id, Long expectedVersion) {
+        Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : reactiveStudentRepository.existsById(id);
+        return exists.flatMap(found -> Mono.error(found
+                ? new PreconditionFailedException("The student with id: " + id + " was modified by another request")
+                : new ResourceNotFoundException("The student with id: " + id + " not found")));
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return Math.min(defaultLimit, maxLimit);
+        }
+        return Math.min(limit, maxLimit);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bside.students.services.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight call among concurrent callers with the same key: the first caller runs it
+ * and the others wait for its result, or its exception. The key is released as soon as the call
+ * completes, so nothing is cached; a later caller runs the call again. A caller waits at most
+ * {@code waitTimeoutMillis} for someone else's call and then fails, so a stuck call does not hold
+ * every request that joined it.
+ *
+ * @param <K> call parameters, compared with equals
+ * @param <V> result shared by every caller of the flight, so it must not be modified
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long waitTimeoutMillis;
+    private final Runnable onCoalesced;
+
+    SingleFlight(long waitTimeoutMillis, Runnable onCoalesced) {
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.onCoalesced = onCoalesced;
+    }
+
+    V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            onCoalesced.run();
+            return this.await(existing);
+        }
+        try {
+            V value = call.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out after " + waitTimeoutMillis
+                    + " ms waiting for an identical call in flight", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical call in flight", e);
+        }
+    }
+}
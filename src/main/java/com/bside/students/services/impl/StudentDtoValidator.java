@@ -0,0 +1,34 @@
+package com.bside.students.services.impl;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.jfr.StudentValidationEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class StudentDtoValidator {
+
+    @Autowired
+    private Validator validator;
+
+    public Map<String, String> validate(StudentDto studentDto) {
+        Map<String, String> errors = new HashMap<>();
+        if (studentDto == null) {
+            errors.put("student", "The student cannot be null");
+            return errors;
+        }
+        StudentValidationEvent event = new StudentValidationEvent(StudentDto.class.getSimpleName(), studentDto.getId());
+        event.begin();
+        for (ConstraintViolation<StudentDto> violation : validator.validate(studentDto)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        event.setErrors(errors.size());
+        event.commit();
+        return errors;
+    }
+}
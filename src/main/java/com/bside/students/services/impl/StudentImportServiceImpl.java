@@ -0,0 +1,201 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.BadRequestException;
+import com.bside.students.caches.StudentCacheNotifier;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentImportResultDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.metrics.StudentMetrics;
+import com.bside.students.models.Student;
+import com.bside.students.repositories.StudentRepository;
+import com.bside.students.services.StudentImportService;
+import io.micrometer.core.annotation.Timed;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@Timed(value = StudentMetrics.SERVICE, histogram = true)
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final Logger log = LogManager.getLogger(StudentImportServiceImpl.class);
+    private static final List<String> REQUIRED_COLUMNS = List.of("fullname", "age", "email");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentDtoValidator studentDtoValidator;
+
+    @Autowired
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${students.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${students.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${students.import.max-row-length:65536}")
+    private int maxRowLength;
+
+    @Override
+    public StudentImportResultDto importCsv(InputStream inputStream) throws IOException {
+        log.info("[START] Init service to import students");
+        long start = System.nanoTime();
+        StudentImportResultDto result = new StudentImportResultDto();
+        CsvRowReader reader = new CsvRowReader(
+                new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 64 * 1024), maxRowLength);
+
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new BadRequestException("The file is empty");
+        }
+        Map<String, Integer> columns = this.mapColumns(header);
+
+        List<Student> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+        List<String> fields;
+        while ((fields = reader.next()) != null) {
+            if (fields.size() == 1 && fields.getFirst().isBlank()) {
+                continue;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+
+            Map<String, String> errors = new HashMap<>();
+            StudentDto studentDto = this.toDto(fields, columns, errors);
+            if (errors.isEmpty()) {
+                errors.putAll(studentDtoValidator.validate(studentDto));
+            }
+            if (!errors.isEmpty()) {
+                result.failed(reader.getRow(), errors, maxReportedErrors);
+                continue;
+            }
+
+            chunk.add(new Student(studentDto.getFullName(), studentDto.getAge(), studentDto.getEmail(),
+                    studentDto.getAddress(), studentDto.getGrade()));
+            chunkRows.add(reader.getRow());
+            if (chunk.size() == chunkSize) {
+                this.saveChunk(chunk, chunkRows, result);
+                chunk = new ArrayList<>(chunkSize);
+                chunkRows = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.saveChunk(chunk, chunkRows, result);
+        }
+
+        result.finish(System.nanoTime() - start);
+        log.info("Success import with {} rows imported and {} failed in {} ms",
+                result.getRowsImported(), result.getRowsFailed(), result.getElapsedMillis());
+        return result;
+    }
+
+    private void saveChunk(List<Student> chunk, List<Long> chunkRows, StudentImportResultDto result) {
+        try {
+            log.info("Try save chunk of {} students", chunk.size());
+            this.insert(chunk);
+            result.imported(chunk.size());
+            this.publishCreated(chunk);
+        } catch (Exception e) {
+            log.error("Error saving chunk of {} students, retrying row by row", chunk.size());
+            log.error(e);
+            for (int i = 0; i < chunk.size(); i++) {
+                Student student = chunk.get(i);
+                student.setId(null);
+                try {
+                    this.insert(List.of(student));
+                    result.imported(1);
+                    this.publishCreated(List.of(student));
+                } catch (Exception rowException) {
+                    result.failed(chunkRows.get(i), Map.of("student", "The student could not be saved"), maxReportedErrors);
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts a chunk and queues its invalidation on the same connection, delivered on commit; a
+     * failed NOTIFY rolls the chunk back like any other insert error.
+     */
+    private void insert(List<Student> students) {
+        transactionTemplate.executeWithoutResult(status -> {
+            studentRepository.insertAll(students);
+            studentCacheNotifier.publishAll(students.stream().map(Student::getId).toList());
+        });
+    }
+
+    private void publishCreated(List<Student> students) {
+        for (Student student : students) {
+            eventPublisher.publishEvent(StudentChangedEvent.created(new StudentDto(student.getId(),
+                    student.getFullName(), student.getAge(), student.getEmail(), student.getAddress(),
+                    student.getGrade(), student.getVersion())));
+        }
+    }
+
+    private Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").replace("_", "").trim().toLowerCase(Locale.ROOT);
+            columns.put(name, i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("The file is missing the columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private StudentDto toDto(List<String> fields, Map<String, Integer> columns, Map<String, String> errors) {
+        StudentDto studentDto = new StudentDto();
+        studentDto.setFullName(this.field(fields, columns, "fullname"));
+        studentDto.setEmail(this.field(fields, columns, "email"));
+        studentDto.setAddress(this.field(fields, columns, "address"));
+
+        String age = this.field(fields, columns, "age");
+        try {
+            studentDto.setAge(age == null || age.isBlank() ? 0 : Integer.parseInt(age.trim()));
+        } catch (NumberFormatException e) {
+            errors.put("age", "The age must be a whole number");
+        }
+
+        String grade = this.field(fields, columns, "grade");
+        try {
+            studentDto.setGrade(grade == null || grade.isBlank() ? 0 : Double.parseDouble(grade.trim()));
+        } catch (NumberFormatException e) {
+            errors.put("grade", "The grade must be a number");
+        }
+        return studentDto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+}
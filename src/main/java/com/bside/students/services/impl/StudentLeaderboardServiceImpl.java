@@ -0,0 +1,61 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.dtos.StudentRankDto;
+import com.bside.students.indexes.StudentLeaderboardIndex;
+import com.bside.students.metrics.StudentMetrics;
+import com.bside.students.services.StudentLeaderboardService;
+import io.micrometer.core.annotation.Timed;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Timed(value = StudentMetrics.SERVICE, histogram = true)
+public class StudentLeaderboardServiceImpl implements StudentLeaderboardService {
+
+    private static final Logger log = LogManager.getLogger(StudentLeaderboardServiceImpl.class);
+
+    @Autowired
+    private StudentLeaderboardIndex studentLeaderboardIndex;
+
+    @Value("${students.leaderboard.default-size:10}")
+    private int defaultSize;
+
+    @Value("${students.leaderboard.max-size:100}")
+    private int maxSize;
+
+    @Override
+    public List<StudentRankDto> getTop(Integer n) {
+        log.info("[START] Init service to get top students");
+        try {
+            int size = n == null || n <= 0 ? Math.min(defaultSize, maxSize) : Math.min(n, maxSize);
+            List<StudentRankDto> top = studentLeaderboardIndex.top(size);
+            log.info("Success get top {} students", top.size());
+            return top;
+        } catch (Exception e) {
+            log.error("Error obtaining top students");
+            log.error(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public StudentRankDto getRank(Integer id) throws ResourceNotFoundException {
+        log.info("[START] Init service to get student rank");
+        try {
+            StudentRankDto rank = studentLeaderboardIndex.rank(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("The student with id: " + id + " not found"));
+            log.info("Success get rank of student with id {}", id);
+            return rank;
+        } catch (Exception e) {
+            log.error("Error obtaining rank of student with id: {}", id);
+            log.error(e);
+            throw e;
+        }
+    }
+}
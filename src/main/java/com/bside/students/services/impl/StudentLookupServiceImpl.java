@@ -0,0 +1,55 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.BadRequestException;
+import com.bside.students.dtos.StudentLookupDto;
+import com.bside.students.indexes.StudentLookupIndex;
+import com.bside.students.metrics.StudentMetrics;
+import com.bside.students.services.StudentLookupService;
+import io.micrometer.core.annotation.Timed;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@Timed(value = StudentMetrics.SERVICE, histogram = true)
+public class StudentLookupServiceImpl implements StudentLookupService {
+
+    private static final Logger log = LogManager.getLogger(StudentLookupServiceImpl.class);
+
+    @Autowired
+    private StudentLookupIndex studentLookupIndex;
+
+    @Value("${students.lookup.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${students.lookup.max-limit:50}")
+    private int maxLimit;
+
+    @Value("${students.lookup.max-query-length:100}")
+    private int maxQueryLength;
+
+    @Override
+    public List<StudentLookupDto> lookup(String query, Integer limit) {
+        log.info("[START] Init service to lookup students");
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("The query cannot be empty");
+        }
+        if (query.length() > maxQueryLength) {
+            throw new BadRequestException("The query cannot be longer than " + maxQueryLength + " characters");
+        }
+        try {
+            int size = limit == null || limit <= 0 ? Math.min(defaultLimit, maxLimit) : Math.min(limit, maxLimit);
+            List<StudentLookupDto> students = studentLookupIndex.lookup(query.trim(), size);
+            log.info("Success lookup {} students", students.size());
+            return students;
+        } catch (Exception e) {
+            log.error("Error looking up students");
+            log.error(e);
+            throw e;
+        }
+    }
+}
@@ -1,34 +1,145 @@
 package com.bside.students.services.impl;
 
+import com.bside.errors.BadRequestException;
+import com.bside.errors.PreconditionFailedException;
 import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.caches.StudentCacheNotifier;
+import com.bside.students.caches.StudentCaches;
+import com.bside.students.caches.StudentListingSnapshot;
+import com.bside.students.dtos.StudentBatchItemDto;
+import com.bside.students.dtos.StudentBatchResultDto;
 import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentSearchDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.jfr.StudentMappingEvent;
+import com.bside.students.jfr.StudentRepositoryEvent;
+import com.bside.students.metrics.SqlStatementStats;
+import com.bside.students.metrics.StudentMetrics;
 import com.bside.students.models.Student;
 import com.bside.students.repositories.StudentRepository;
+import com.bside.students.repositories.StudentSpecifications;
 import com.bside.students.services.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 @Service
+@Timed(value = StudentMetrics.SERVICE, histogram = true)
 public class StudentServiceImpl implements StudentService {
 
     private static final Logger log = LogManager.getLogger(StudentServiceImpl.class);
+    private static final List<String> STUDENT_FIELDS =
+            List.of("id", "fullName", "age", "email", "address", "grade", "version");
+
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private StudentDtoValidator studentDtoValidator;
+
+    @Autowired
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${students.pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${students.pagination.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${students.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${students.batch.max-items:10000}")
+    private int batchMaxItems;
+
+    @Value("${students.listing.snapshot.enabled:true}")
+    private boolean listingSnapshotEnabled;
+
+    @Value("${students.listing.snapshot.gzip:true}")
+    private boolean listingSnapshotGzip;
+
+    @Value("${students.coalescing.wait-timeout-ms:5000}")
+    private long coalescingWaitTimeoutMs;
+
+    // Bumped by every change, local or remote; the listing snapshot is rebuilt when it falls behind
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<StudentListingSnapshot> listingSnapshot = new AtomicReference<>();
+    private final ReentrantLock listingSnapshotLock = new ReentrantLock();
+
+    // Concurrent identical reads share one query. The generation is part of the key, so a read that
+    // starts after a write never joins a query that started before it. getById does not need one:
+    // its cache is read with sync = true, which already loads each id once
+    private SingleFlight<List<Object>, List<StudentDto>> findPageFlight;
+    private SingleFlight<List<Object>, List<Map<String, Object>>> findFieldsFlight;
+
+    @PostConstruct
+    void initFlights() {
+        findPageFlight = new SingleFlight<>(coalescingWaitTimeoutMs, () -> this.coalesced("findPageAfter"));
+        findFieldsFlight = new SingleFlight<>(coalescingWaitTimeoutMs, () -> this.coalesced("findFieldsAfter"));
+    }
 
     @Override
     public Student create(StudentDto studentDto) throws Exception{
         log.info("[START] Init service to create student");
         try {
             log.info("Convert entity student");
-            Student student = this.dtoToModel(studentDto);
+            Student student = dtoToModel(studentDto);
+            // The id comes from the sequence; a client-supplied one would make save() merge a detached row
+            student.setId(null);
             log.info("Try save entity student");
-            Student newStudent = studentRepository.save(student);
+            Student newStudent = this.inTransaction(() -> {
+                Student saved = this.repository("save", null, 1, () -> studentRepository.save(student));
+                studentCacheNotifier.publish(saved.getId());
+                return saved;
+            });
+            eventPublisher.publishEvent(StudentChangedEvent.created(modelToDto(newStudent)));
             log.info("Success save entity student");
             return newStudent;
         } catch (Exception e) {
@@ -40,16 +151,61 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public List<StudentDto> getAll() {
+    public StudentBatchResultDto createBatch(List<StudentDto> studentsDto) {
+        log.info("[START] Init service to create {} students in batch", studentsDto.size());
+        if (studentsDto.size() > batchMaxItems) {
+            throw new BadRequestException("The batch cannot contain more than " + batchMaxItems + " students");
+        }
+
+        List<StudentBatchItemDto> items = new ArrayList<>(studentsDto.size());
+        List<Student> chunk = new ArrayList<>(batchChunkSize);
+        List<StudentBatchItemDto> chunkItems = new ArrayList<>(batchChunkSize);
+        for (int index = 0; index < studentsDto.size(); index++) {
+            StudentDto studentDto = studentsDto.get(index);
+            StudentBatchItemDto item = new StudentBatchItemDto(index);
+            items.add(item);
+
+            Map<String, String> errors = studentDtoValidator.validate(studentDto);
+            if (!errors.isEmpty()) {
+                item.failed(errors);
+                continue;
+            }
+
+            Student student = dtoToModel(studentDto);
+            student.setId(null);
+            chunk.add(student);
+            chunkItems.add(item);
+            if (chunk.size() == batchChunkSize) {
+                this.saveChunk(chunk, chunkItems);
+                chunk = new ArrayList<>(batchChunkSize);
+                chunkItems = new ArrayList<>(batchChunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.saveChunk(chunk, chunkItems);
+        }
+
+        int created = (int) items.stream()
+                .filter(item -> StudentBatchItemDto.CREATED.equals(item.getStatus()))
+                .count();
+        log.info("Success create batch with {} students created and {} failed", created, items.size() - created);
+        return new StudentBatchResultDto(created, items.size() - created, items);
+    }
+
+    @Override
+    public StudentPageDto<StudentDto> getAll(Integer after, Integer limit) {
         log.info("[START] Init service to get all students");
         try {
-            log.info("Try find all students");
-            List<Student> students = studentRepository.findAll();
-            List<StudentDto> studentsDto = students.stream()
-                    .map((this::modelToDto))
-                    .toList();
+            int pageSize = this.resolveLimit(limit);
+            int cursor = after == null ? 0 : after;
+            log.info("Try find students after id {} with limit {}", cursor, pageSize);
+            List<StudentDto> students = findPageFlight.execute(List.of(generation.get(), cursor, pageSize),
+                    () -> this.repository("findPageAfter", null, pageSize + 1,
+                            () -> studentRepository.findPageAfter(cursor, Limit.of(pageSize + 1))));
+            List<StudentDto> studentsDto = students.size() > pageSize ? students.subList(0, pageSize) : students;
+            Integer nextCursor = students.size() > pageSize ? studentsDto.getLast().getId() : null;
             log.info("Success get all students");
-            return studentsDto;
+            return new StudentPageDto<>(studentsDto, nextCursor, pageSize);
         } catch (Exception e) {
             log.error("Error obtaining students");
             log.error(e);
@@ -57,16 +213,152 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    /**
+     * Returns the serialized first page of the listing. When a write made it stale, one caller
+     * rebuilds it while the others keep getting the previous snapshot; only the very first build
+     * makes everyone wait.
+     */
+    @Override
+    public Optional<StudentListingSnapshot> getListingSnapshot() {
+        if (!listingSnapshotEnabled) {
+            return Optional.empty();
+        }
+        StudentListingSnapshot snapshot = listingSnapshot.get();
+        if (snapshot != null && snapshot.getGeneration() == generation.get()) {
+            return Optional.of(snapshot);
+        }
+        if (snapshot == null) {
+            listingSnapshotLock.lock();
+        } else if (!listingSnapshotLock.tryLock()) {
+            return Optional.of(snapshot);
+        }
+        try {
+            snapshot = listingSnapshot.get();
+            if (snapshot == null || snapshot.getGeneration() != generation.get()) {
+                snapshot = this.buildListingSnapshot();
+                listingSnapshot.set(snapshot);
+            }
+            return Optional.of(snapshot);
+        } finally {
+            listingSnapshotLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onStudentChanged(StudentChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    @Override
+    public StudentPageDto<Map<String, Object>> getAll(Integer after, Integer limit, List<String> fields) {
+        log.info("[START] Init service to get all students with fields {}", fields);
+        try {
+            int pageSize = this.resolveLimit(limit);
+            int cursor = after == null ? 0 : after;
+            List<String> selectedFields = this.resolveFields(fields);
+            log.info("Try find students after id {} with limit {}", cursor, pageSize);
+            List<Map<String, Object>> students = findFieldsFlight.execute(
+                    List.of(generation.get(), cursor, pageSize, selectedFields),
+                    () -> this.repository("findFieldsAfter", null, pageSize + 1,
+                            () -> studentRepository.findFieldsAfter(selectedFields, cursor, pageSize + 1)));
+            List<Map<String, Object>> page = students.size() > pageSize ? students.subList(0, pageSize) : students;
+            Integer nextCursor = students.size() > pageSize ? (Integer) page.getLast().get("id") : null;
+            log.info("Success get all students");
+            return new StudentPageDto<>(page, nextCursor, pageSize);
+        } catch (Exception e) {
+            log.error("Error obtaining students");
+            log.error(e);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StudentPageDto<StudentDto> search(StudentSearchDto studentSearchDto, Integer after, Integer limit) {
+        log.info("[START] Init service to search students");
+        this.validateRange("age", studentSearchDto.getMinAge(), studentSearchDto.getMaxAge());
+        this.validateRange("grade", studentSearchDto.getMinGrade(), studentSearchDto.getMaxGrade());
+        try {
+            int pageSize = this.resolveLimit(limit);
+            int cursor = after == null ? 0 : after;
+            Specification<Student> specification = Specification
+                    .where(StudentSpecifications.idGreaterThan(cursor))
+                    .and(StudentSpecifications.ageBetween(studentSearchDto.getMinAge(), studentSearchDto.getMaxAge()))
+                    .and(StudentSpecifications.gradeBetween(studentSearchDto.getMinGrade(), studentSearchDto.getMaxGrade()))
+                    .and(StudentSpecifications.emailStartsWith(studentSearchDto.getEmailPrefix()))
+                    .and(StudentSpecifications.fullNameStartsWith(studentSearchDto.getNamePrefix()));
+            log.info("Try search students after id {} with limit {}", cursor, pageSize);
+            List<StudentDto> students = this.repository("search", null, pageSize + 1,
+                    () -> studentRepository.search(specification, pageSize + 1));
+            List<StudentDto> studentsDto = students.size() > pageSize ? students.subList(0, pageSize) : students;
+            Integer nextCursor = students.size() > pageSize ? studentsDto.getLast().getId() : null;
+            log.info("Success search students");
+            return new StudentPageDto<>(studentsDto, nextCursor, pageSize);
+        } catch (Exception e) {
+            log.error("Error searching students");
+            log.error(e);
+            throw e;
+        }
+    }
+
+    @Override
+    @Cacheable(cacheNames = StudentCaches.STUDENTS, key = "#id", sync = true)
+    public StudentDto getById(Integer id) throws ResourceNotFoundException {
+        log.info("[START] Init service to get student");
+        try {
+            log.info("Try find entity student with id {}", id);
+            // Served from the Student entity region when it holds the row
+            StudentDto studentDto = this.repository("findById", id, 1, () -> studentRepository.findById(id))
+                    .map(StudentServiceImpl::modelToDto)
+                    .orElseThrow(() -> new ResourceNotFoundException("The student with id: " + id + " not found"));
+            log.info("Success get entity student with id {}", id);
+            return studentDto;
+        } catch (Exception e) {
+            log.error("Error obtaining student with id: {}", id);
+            log.error(e);
+            throw e;
+        }
+    }
+
     @Override
-    public Optional<Student> update(Integer id, StudentDto studentDto) throws ResourceNotFoundException, Exception{
+    @Transactional(readOnly = true)
+    public long export(Consumer<StudentDto> consumer) {
+        log.info("[START] Init service to export students");
+        try (Stream<StudentDto> students = this.repository("streamAll", null, 0, () -> studentRepository.streamAll())) {
+            long exported = 0;
+            Iterator<StudentDto> iterator = students.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                exported++;
+            }
+            log.info("Success export {} students", exported);
+            return exported;
+        } catch (Exception e) {
+            log.error("Error exporting students");
+            log.error(e);
+            throw e;
+        }
+    }
+
+    @Override
+    @CacheEvict(cacheNames = StudentCaches.STUDENTS, key = "#id")
+    public Optional<Student> update(Integer id, StudentDto studentDto, Long expectedVersion)
+            throws ResourceNotFoundException, PreconditionFailedException, Exception{
         log.info("[START] Init service to update student");
         try {
             log.info("Try update entity student");
-            Optional<Student> studentUpdate = Optional.ofNullable(studentRepository.findById(id)
-                    .map(student -> {
-                        student = this.dtoToModel(studentDto);
-                        return studentRepository.save(student);
-                    }).orElseThrow(() -> new ResourceNotFoundException("The student with id: " + id + " not found")));
+            Optional<Long> version = this.inTransaction(() -> this.published(id,
+                    this.repository("updateById", id, 1, () -> studentRepository.updateById(id,
+                            studentDto.getFullName(), studentDto.getAge(), studentDto.getEmail(),
+                            studentDto.getAddress(), studentDto.getGrade(), expectedVersion))));
+            if (version.isEmpty()) {
+                throw this.writeFailure(id, expectedVersion);
+            }
+            Student student = dtoToModel(studentDto);
+            student.setId(id);
+            student.setVersion(version.get());
+            Optional<Student> studentUpdate = Optional.of(student);
+            eventPublisher.publishEvent(StudentChangedEvent.updated(id, modelToDto(student)));
             log.info("Success update entity student with id {}" , id);
             return studentUpdate;
         } catch (Exception e) {
@@ -77,33 +369,187 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
-    public void delete(Integer id) throws ResourceNotFoundException, Exception{
+    @CacheEvict(cacheNames = StudentCaches.STUDENTS, key = "#id")
+    public Long patch(Integer id, StudentPatchDto studentPatchDto, Long expectedVersion)
+            throws ResourceNotFoundException, PreconditionFailedException {
+        log.info("[START] Init service to patch student");
+        try {
+            log.info("Try patch entity student");
+            Optional<StudentDto> patched = this.inTransaction(() -> this.published(id,
+                    this.repository("patchById", id, 1, () -> studentRepository.patchById(id,
+                            studentPatchDto.getFullName(), studentPatchDto.getAge(), studentPatchDto.getEmail(),
+                            studentPatchDto.getAddress(), studentPatchDto.getGrade(), expectedVersion))));
+            if (patched.isEmpty()) {
+                throw this.writeFailure(id, expectedVersion);
+            }
+            eventPublisher.publishEvent(StudentChangedEvent.updated(id, patched.get()));
+            log.info("Success patch entity student with id {}" , id);
+            return patched.get().getVersion();
+        } catch (Exception e) {
+            log.error("Error patching student with id: {}", id);
+            log.error(e);
+            throw e;
+        }
+    }
+
+    @Override
+    @CacheEvict(cacheNames = StudentCaches.STUDENTS, key = "#id")
+    public void delete(Integer id, Long expectedVersion)
+            throws ResourceNotFoundException, PreconditionFailedException, Exception{
         log.info("[START] Init service to delete student");
 
         try {
             log.info("Try deleted entity student");
-            if(studentRepository.existsById(id)){
-                studentRepository.deleteById(id);
-            } else {
-                throw new ResourceNotFoundException("The student with id: " + id + " not found");
+            Optional<Integer> deleted = this.inTransaction(() -> this.published(id,
+                    Optional.of(this.repository("removeById", id, 1, () -> studentRepository.removeById(id, expectedVersion)))
+                            .filter(count -> count > 0)));
+            if (deleted.isEmpty()) {
+                throw this.writeFailure(id, expectedVersion);
             }
+            eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
 
             log.info("Success delete entity student with id: {}", id);
 
         } catch (Exception e) {
-            log.error("Error saving student with id: {}", id);
+            log.error("Error deleting student with id: {}", id);
+            log.error(e);
+            throw e;
+        }
+    }
+
+    private StudentListingSnapshot buildListingSnapshot() {
+        log.info("[START] Init service to build the students listing snapshot");
+        try {
+            // Read before querying, so a write that races with the query makes the snapshot stale
+            long snapshotGeneration = generation.get();
+            byte[] json = objectMapper.writeValueAsBytes(this.getAll(null, null));
+            byte[] gzip = null;
+            if (listingSnapshotGzip) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+                try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+                    gzipStream.write(json);
+                }
+                gzip = compressed.toByteArray();
+            }
+            log.info("Success build students listing snapshot for generation {} with {} bytes",
+                    snapshotGeneration, json.length);
+            return new StudentListingSnapshot(snapshotGeneration, json, gzip);
+        } catch (IOException e) {
+            log.error("Error building the students listing snapshot");
+            log.error(e);
+            throw new UncheckedIOException(e);
+        } catch (Exception e) {
+            log.error("Error building the students listing snapshot");
             log.error(e);
             throw e;
         }
     }
 
-    private StudentDto modelToDto(Student student){
-        return new StudentDto(student.getId(), student.getFullName(),student.getAge(),
-                student.getEmail(), student.getAddress(), student.getGrade());
+    private RuntimeException writeFailure(Integer id, Long expectedVersion) {
+        if (expectedVersion != null && this.repository("existsById", id, 1, () -> studentRepository.existsById(id))) {
+            return new PreconditionFailedException("The student with id: " + id + " was modified by another request");
+        }
+        return new ResourceNotFoundException("The student with id: " + id + " not found");
+    }
+
+    private void saveChunk(List<Student> chunk, List<StudentBatchItemDto> chunkItems) {
+        try {
+            log.info("Try save chunk of {} students", chunk.size());
+            List<Student> saved = this.inTransaction(() -> {
+                List<Student> inserted = this.repository("insertAll", null, chunk.size(),
+                        () -> studentRepository.insertAll(chunk));
+                studentCacheNotifier.publishAll(inserted.stream().map(Student::getId).toList());
+                return inserted;
+            });
+            for (int i = 0; i < chunkItems.size(); i++) {
+                chunkItems.get(i).created(saved.get(i).getId());
+                eventPublisher.publishEvent(StudentChangedEvent.created(modelToDto(saved.get(i))));
+            }
+        } catch (Exception e) {
+            log.error("Error saving chunk of {} students", chunk.size());
+            log.error(e);
+            chunkItems.forEach(item -> item.failed(Map.of("student", "The student could not be saved")));
+        }
+    }
+
+    private List<String> resolveFields(List<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (!STUDENT_FIELDS.contains(name)) {
+                throw new BadRequestException("The field " + name + " does not exist. Valid fields: "
+                        + String.join(", ", STUDENT_FIELDS));
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private <T extends Comparable<T>> void validateRange(String field, T min, T max) {
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException("The minimum " + field + " cannot be greater than the maximum " + field);
+        }
+    }
+
+    /**
+     * Runs a write together with its cache invalidation. The NOTIFY goes out on the write's own
+     * connection and Postgres delivers it on commit, so a request never needs a second connection
+     * and the other nodes never miss a committed write. The local events are published by the
+     * caller once this returns, after the commit.
+     */
+    private <T> T inTransaction(Supplier<T> write) {
+        return transactionTemplate.execute(status -> write.get());
+    }
+
+    private <T> Optional<T> published(Integer id, Optional<T> written) {
+        if (written.isPresent()) {
+            studentCacheNotifier.publish(id);
+        }
+        return written;
+    }
+
+    private <T> T repository(String operation, Integer id, int batchSize, Supplier<T> call) {
+        StudentRepositoryEvent event = new StudentRepositoryEvent(operation, id, batchSize);
+        event.begin();
+        try {
+            return call.get();
+        } finally {
+            event.commit();
+        }
+    }
+
+    private void coalesced(String operation) {
+        meterRegistry.ifAvailable(registry ->
+                registry.counter(StudentMetrics.COALESCED, "operation", operation).increment());
+        SqlStatementStats stats = SqlStatementStats.current();
+        if (stats != null) {
+            stats.recordCoalesced();
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return Math.min(defaultLimit, maxLimit);
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    static StudentDto modelToDto(Student student){
+        StudentMappingEvent event = new StudentMappingEvent("modelToDto", student.getId());
+        event.begin();
+        StudentDto studentDto = new StudentDto(student.getId(), student.getFullName(), student.getAge(),
+                student.getEmail(), student.getAddress(), student.getGrade(), student.getVersion());
+        event.commit();
+        return studentDto;
     }
 
-    private Student dtoToModel(StudentDto studentDto){
-        return new Student(studentDto.getId(), studentDto.getFullName(), studentDto.getAge(),
+    static Student dtoToModel(StudentDto studentDto){
+        StudentMappingEvent event = new StudentMappingEvent("dtoToModel", studentDto.getId());
+        event.begin();
+        Student student = new Student(studentDto.getId(), studentDto.getFullName(), studentDto.getAge(),
                 studentDto.getEmail(), studentDto.getAddress(), studentDto.getGrade());
+        event.commit();
+        return student;
     }
 }
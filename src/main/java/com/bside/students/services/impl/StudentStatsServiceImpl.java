@@ -0,0 +1,35 @@
+package com.bside.students.services.impl;
+
+import com.bside.students.dtos.StudentStatsDto;
+import com.bside.students.indexes.StudentStatsIndex;
+import com.bside.students.metrics.StudentMetrics;
+import com.bside.students.services.StudentStatsService;
+import io.micrometer.core.annotation.Timed;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+@Timed(value = StudentMetrics.SERVICE, histogram = true)
+public class StudentStatsServiceImpl implements StudentStatsService {
+
+    private static final Logger log = LogManager.getLogger(StudentStatsServiceImpl.class);
+
+    @Autowired
+    private StudentStatsIndex studentStatsIndex;
+
+    @Override
+    public StudentStatsDto getStats() {
+        log.info("[START] Init service to get students stats");
+        try {
+            StudentStatsDto stats = studentStatsIndex.stats();
+            log.info("Success get stats of {} students", stats.getOverall().getCount());
+            return stats;
+        } catch (Exception e) {
+            log.error("Error obtaining students stats");
+            log.error(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.bside.students.services.impl;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.errors.TooManyRequestsException;
+import com.bside.students.dtos.StudentBatchItemDto;
+import com.bside.students.dtos.StudentBatchResultDto;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentWriteStatusDto;
+import com.bside.students.metrics.StudentMetrics;
+import com.bside.students.services.StudentService;
+import com.bside.students.services.StudentWriteBehindService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts students into a bounded queue and inserts them from a single flusher thread through
+ * {@link StudentService#createBatch}. A batch is flushed when it reaches the max batch size or when
+ * the first student in it has waited the max linger time. Outcomes are kept per token for a while so
+ * clients can poll them. On shutdown the flusher stops after the web server and drains the queue.
+ */
+@Service
+public class StudentWriteBehindServiceImpl implements StudentWriteBehindService, SmartLifecycle {
+
+    private static final Logger log = LogManager.getLogger(StudentWriteBehindServiceImpl.class);
+
+    @Autowired
+    private StudentService studentService;
+
+    @Value("${students.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${students.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${students.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${students.write-behind.max-linger-ms:50}")
+    private long maxLingerMillis;
+
+    @Value("${students.write-behind.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${students.write-behind.status-ttl-seconds:600}")
+    private long statusTtlSeconds;
+
+    @Value("${students.write-behind.status-max-size:100000}")
+    private long statusMaxSize;
+
+    @Value("${students.write-behind.shutdown-timeout-ms:30000}")
+    private long shutdownTimeoutMillis;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private BlockingQueue<PendingStudent> queue;
+    private Cache<String, StudentWriteStatusDto> statuses;
+    private volatile boolean running;
+    private Thread thread;
+
+    @PostConstruct
+    void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        statuses = Caffeine.newBuilder()
+                .maximumSize(statusMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(statusTtlSeconds))
+                .build();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Timed(value = StudentMetrics.SERVICE, histogram = true)
+    public StudentWriteStatusDto enqueue(StudentDto studentDto) throws TooManyRequestsException {
+        if (!running) {
+            throw new TooManyRequestsException("The write queue is not accepting students", retryAfterSeconds);
+        }
+        String token = UUID.randomUUID().toString();
+        StudentWriteStatusDto status = StudentWriteStatusDto.pending(token);
+        // Registered before offering so the pending status can never overwrite the flusher's outcome
+        statuses.put(token, status);
+        if (!queue.offer(new PendingStudent(token, studentDto))) {
+            statuses.invalidate(token);
+            log.error("Write queue is full with {} students", queueCapacity);
+            throw new TooManyRequestsException("The write queue is full, retry later", retryAfterSeconds);
+        }
+        return status;
+    }
+
+    @Override
+    @Timed(value = StudentMetrics.SERVICE, histogram = true)
+    public StudentWriteStatusDto getStatus(String token) throws ResourceNotFoundException {
+        StudentWriteStatusDto status = statuses.getIfPresent(token);
+        if (status == null) {
+            throw new ResourceNotFoundException("The write with token: " + token + " not found");
+        }
+        return status;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread.Builder builder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+        thread = builder.name("student-write-behind").start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(shutdownTimeoutMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                log.error("Write queue was not drained on shutdown, {} students left", queue.size());
+                thread.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    @Override
+    public int getPhase() {
+        // Below the web server phases: started before it accepts requests, stopped after it has drained them
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drain() {
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingStudent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingStudent> batch = new ArrayList<>(maxBatchSize);
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingStudent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                this.flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<PendingStudent> batch) {
+        List<StudentDto> studentsDto = new ArrayList<>(batch.size());
+        for (PendingStudent pending : batch) {
+            studentsDto.add(pending.studentDto);
+        }
+        try {
+            StudentBatchResultDto result = studentService.createBatch(studentsDto);
+            for (int i = 0; i < batch.size(); i++) {
+                StudentBatchItemDto item = result.getItems().get(i);
+                statuses.put(batch.get(i).token, new StudentWriteStatusDto(batch.get(i).token, item.getStatus(),
+                        item.getId(), item.getErrors()));
+            }
+        } catch (Exception e) {
+            log.error("Error flushing {} queued students", batch.size());
+            log.error(e);
+            for (PendingStudent pending : batch) {
+                statuses.put(pending.token, new StudentWriteStatusDto(pending.token, StudentWriteStatusDto.FAILED,
+                        null, Map.of("student", "The student could not be saved")));
+            }
+        }
+    }
+
+    private static final class PendingStudent {
+        private final String token;
+        private final StudentDto studentDto;
+
+        private PendingStudent(String token, StudentDto studentDto) {
+            this.token = token;
+            this.studentDto = studentDto;
+        }
+    }
+}
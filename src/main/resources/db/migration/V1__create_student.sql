@@ -0,0 +1,26 @@
+-- Baseline of the schema previously managed by spring.jpa.hibernate.ddl-auto=update.
+-- Statements are idempotent so existing databases can be migrated in place.
+create sequence if not exists student_seq start with 1 increment by 50;
+
+create table if not exists student (
+    id integer not null,
+    full_name varchar(255),
+    age integer not null,
+    email varchar(255),
+    address varchar(255),
+    grade float(53) not null,
+    version bigint,
+    primary key (id)
+);
+
+alter table student add column if not exists version bigint;
+update student set version = 0 where version is null;
+alter table student alter column version set default 0;
+
+-- Hibernate's pooled optimizer treats the sequence value as the upper end of a block of 50 ids,
+-- so the next value must be at least max(id) + 50 for the allocated block to start after max(id).
+-- Builds that still ran ddl-auto=update created student_seq at 1 and may already hold blocks
+-- from it, so the sequence is never moved back either.
+select setval('student_seq', greatest(
+        (select coalesce(max(id), 0) + 50 from student),
+        (select case when is_called then last_value + 50 else last_value end from student_seq)), false);
@@ -0,0 +1,12 @@
+-- Indexes backing GET v1/students/search. A range on age or grade returns entries in
+-- (age, id) / (grade, id) order, not id order, so the page (order by id limit n) still needs a
+-- top-N sort over the matching rows; for wide ranges the planner may instead walk the primary
+-- key from :after and filter. The trailing id lets id > :after be checked inside the index
+-- before any heap fetch, which keeps later pages of a narrow range cheap.
+create index if not exists idx_student_age on student (age, id);
+create index if not exists idx_student_grade on student (grade, id);
+
+-- Prefix filters compare lower(column) with like 'prefix%'; text_pattern_ops makes that
+-- usable as an index range scan regardless of the database collation.
+create index if not exists idx_student_email_lower on student (lower(email) text_pattern_ops);
+create index if not exists idx_student_full_name_lower on student (lower(full_name) text_pattern_ops);
@@ -0,0 +1,7 @@
+-- Trigram indexes backing GET v1/students/lookup. pg_trgm lowercases before extracting trigrams,
+-- so the plain columns are indexed.
+create extension if not exists pg_trgm;
+
+create index if not exists idx_student_full_name_trgm on student using gin (full_name gin_trgm_ops);
+create index if not exists idx_student_email_trgm on student using gin (email gin_trgm_ops);
+create index if not exists idx_student_address_trgm on student using gin (address gin_trgm_ops);
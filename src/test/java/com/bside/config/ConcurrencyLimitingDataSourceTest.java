@@ -0,0 +1,69 @@
+package com.bside.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ConcurrencyLimitingDataSourceTest {
+
+    @Test
+    void testPermitIsReleasedOnceOnClose() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 2, 10);
+
+        Connection limited = dataSource.getConnection();
+        assertEquals(dataSource.getAvailablePermits(), 1);
+
+        limited.close();
+        limited.close();
+
+        assertEquals(dataSource.getAvailablePermits(), 2);
+        verify(connection, times(1)).close();
+    }
+
+    @Test
+    void testUnwrapDoesNotExposeThePooledConnection() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 10);
+
+        Connection limited = dataSource.getConnection();
+
+        assertSame(limited, limited.unwrap(Connection.class));
+        assertThrows(SQLException.class, () -> limited.unwrap(connection.getClass()));
+        limited.unwrap(Connection.class).close();
+        assertEquals(dataSource.getAvailablePermits(), 1);
+    }
+
+    @Test
+    void testGetConnectionTimesOutWhenNoPermitIsLeft() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(mock(Connection.class));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 10);
+
+        dataSource.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        verify(target, times(1)).getConnection();
+    }
+
+    @Test
+    void testPermitIsReleasedWhenTargetFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("Authenticate DB failed"));
+        ConcurrencyLimitingDataSource dataSource = new ConcurrencyLimitingDataSource(target, 1, 10);
+
+        assertThrows(SQLException.class, dataSource::getConnection);
+
+        assertEquals(dataSource.getAvailablePermits(), 1);
+    }
+}
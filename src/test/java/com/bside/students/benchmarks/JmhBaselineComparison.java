@@ -0,0 +1,133 @@
+package com.bside.students.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Compares a JMH JSON result with the recorded baseline and fails when the average time or the
+ * normalized allocation rate of a benchmark grows, or its throughput drops, more than the
+ * threshold. Run by the jmh profile after the benchmarks; benchmarks with no baseline entry are
+ * reported and skipped, and a missing or empty baseline fails the run. The machine the baseline was recorded on is described in a
+ * properties file next to it; a run on another JDK or processor count is compared anyway, with a
+ * warning, since its deltas mean little.
+ * <p>
+ * Arguments: result file, baseline file, allowed regression in percent.
+ */
+public final class JmhBaselineComparison {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private JmhBaselineComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        Map<String, Score> results = read(Path.of(args[0]));
+        Path baselinePath = Path.of(args[1]);
+        Map<String, Score> baseline = read(baselinePath);
+        double threshold = Double.parseDouble(args[2]) / 100;
+        if (baseline.isEmpty()) {
+            System.out.println("No baseline recorded in " + baselinePath + ", record one on the reference machine");
+            System.exit(1);
+        }
+        warnOnEnvironmentMismatch(baselinePath, baseline, results);
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %14s %8s%n", "benchmark", "baseline", "current", "delta",
+                "B/op", "delta");
+        for (Map.Entry<String, Score> entry : results.entrySet()) {
+            Score current = entry.getValue();
+            Score expected = baseline.get(entry.getKey());
+            if (expected == null) {
+                System.out.printf("%-70s %14s %14.3f %8s %14.1f %8s%n", entry.getKey(), "-", current.time,
+                        "-", current.allocation, "-");
+                continue;
+            }
+            // Higher is better in throughput mode, so a drop is the regression
+            double timeDelta = delta(expected.time, current.time) * (current.throughput ? -1 : 1);
+            double allocationDelta = delta(expected.allocation, current.allocation);
+            boolean regressed = timeDelta > threshold || allocationDelta > threshold;
+            System.out.printf("%-70s %14.3f %14.3f %7.1f%% %14.1f %7.1f%%%s%n", entry.getKey(), expected.time,
+                    current.time, timeDelta * 100, current.allocation, allocationDelta * 100,
+                    regressed ? "  REGRESSION" : "");
+            if (regressed) {
+                regressions++;
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmarks regressed more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static void warnOnEnvironmentMismatch(Path baselinePath, Map<String, Score> baseline,
+                                                  Map<String, Score> results) throws IOException {
+        Properties machine = new Properties();
+        Path machinePath = baselinePath.resolveSibling(
+                baselinePath.getFileName().toString().replaceFirst("\\.json$", "") + ".properties");
+        if (Files.exists(machinePath)) {
+            try (Reader reader = Files.newBufferedReader(machinePath)) {
+                machine.load(reader);
+            }
+        }
+        String baselineJdk = baseline.values().iterator().next().jdk;
+        System.out.printf("Baseline: %s, %s processors, JDK %s, recorded %s%n",
+                machine.getProperty("cpu", "unknown cpu"), machine.getProperty("processors", "?"), baselineJdk,
+                machine.getProperty("recorded", "on an unknown date"));
+        String currentJdk = results.isEmpty() ? baselineJdk : results.values().iterator().next().jdk;
+        if (!currentJdk.equals(baselineJdk)) {
+            System.out.printf("WARNING: this run used JDK %s, the baseline JDK %s%n", currentJdk, baselineJdk);
+        }
+        String processors = String.valueOf(Runtime.getRuntime().availableProcessors());
+        if (!processors.equals(machine.getProperty("processors", processors))) {
+            System.out.printf("WARNING: this machine has %s processors, the baseline machine %s%n", processors,
+                    machine.getProperty("processors"));
+        }
+    }
+
+    private static double delta(double expected, double current) {
+        return expected == 0 ? 0 : (current - expected) / expected;
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        if (!Files.exists(path)) {
+            return scores;
+        }
+        try (Reader reader = Files.newBufferedReader(path)) {
+            JsonArray runs = JsonParser.parseReader(reader).getAsJsonArray();
+            for (JsonElement element : runs) {
+                JsonObject run = element.getAsJsonObject();
+                StringBuilder key = new StringBuilder(run.get("benchmark").getAsString());
+                if (run.has("params")) {
+                    run.getAsJsonObject("params").entrySet().forEach(param ->
+                            key.append(':').append(param.getKey()).append('=').append(param.getValue().getAsString()));
+                }
+                double time = run.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+                double allocation = 0;
+                if (run.has("secondaryMetrics")) {
+                    for (Map.Entry<String, JsonElement> metric : run.getAsJsonObject("secondaryMetrics").entrySet()) {
+                        // Older JMH versions prefix the profiler metrics with a middle dot
+                        if (metric.getKey().replace("·", "").equals(ALLOCATION_METRIC)) {
+                            allocation = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                        }
+                    }
+                }
+                String jdk = run.has("jdkVersion") ? run.get("jdkVersion").getAsString() : "unknown";
+                boolean throughput = run.get("mode").getAsString().equals("thrpt");
+                scores.put(key.toString(), new Score(time, allocation, throughput, jdk));
+            }
+        }
+        return scores;
+    }
+
+    private record Score(double time, double allocation, boolean throughput, String jdk) {}
+}
@@ -0,0 +1,250 @@
+package com.bside.students.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for v1/students. Requests are started on a fixed schedule of
+ * {@code rate} per second whatever the server does, and latency is measured from the time a
+ * request was due, not from when it was actually sent. A stalled server therefore shows up in the
+ * percentiles instead of silently lowering the offered load (coordinated omission). The time from
+ * send to response is kept apart as the service time.
+ */
+public class StudentLoadGenerator {
+
+    public enum Operation {
+        CREATE, LIST, UPDATE, DELETE, BATCH
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final int LIST_LIMIT = 50;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final int rate;
+    private final Map<Operation, Integer> mix;
+    private final int batchSize;
+    private final int totalWeight;
+    private final ConcurrentLinkedDeque<Integer> ids = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger maxId = new AtomicInteger();
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    public StudentLoadGenerator(HttpClient client, String baseUrl, int rate, Map<Operation, Integer> mix, int batchSize) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.mix = new EnumMap<>(mix);
+        this.batchSize = batchSize;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (rate <= 0 || totalWeight <= 0) {
+            throw new IllegalArgumentException("The rate and the operation mix must be positive");
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Parses a mix like {@code create:20,list:50,update:20,delete:10}. Missing operations get
+     * weight zero.
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.valueOf(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    public void seed(int count) {
+        for (int offset = 0; offset < count; offset += batchSize) {
+            HttpResponse<String> response = client.sendAsync(this.batchRequest(Math.min(batchSize, count - offset)),
+                    HttpResponse.BodyHandlers.ofString()).join();
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+            this.remember(Operation.BATCH, response.body());
+        }
+    }
+
+    /**
+     * Runs the schedule for the given duration and waits for the outstanding requests. The
+     * statistics are reset first, so a warmup run followed by a measured run only reports the
+     * latter.
+     */
+    public StudentLoadReport run(Duration duration) {
+        stats.values().forEach(Stats::reset);
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        for (long intended = start; intended < end; intended += period) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.add(this.fire(this.pick(), intended));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        Map<Operation, StudentLoadReport.Endpoint> endpoints = new EnumMap<>(Operation.class);
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            endpoints.put(entry.getKey(), entry.getValue().toEndpoint(elapsed));
+        }
+        return new StudentLoadReport(rate, mix, batchSize, elapsed, endpoints);
+    }
+
+    private CompletableFuture<?> fire(Operation operation, long intended) {
+        HttpRequest request = this.request(operation);
+        long sent = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    long now = System.nanoTime();
+                    Stats operationStats = stats.get(operation);
+                    operationStats.latency.recordValue(Math.min(now - intended, HIGHEST_TRACKABLE_NANOS));
+                    operationStats.serviceTime.recordValue(Math.min(now - sent, HIGHEST_TRACKABLE_NANOS));
+                    operationStats.requests.increment();
+                    if (error != null || response.statusCode() >= 400) {
+                        operationStats.errors.increment();
+                    } else {
+                        this.remember(operation, response.body());
+                    }
+                    return null;
+                });
+    }
+
+    private Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            ticket -= entry.getValue();
+            if (ticket < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(this.student(sequence.incrementAndGet())))
+                    .build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl + "?limit=" + LIST_LIMIT + "&after="
+                            + ThreadLocalRandom.current().nextInt(Math.max(maxId.get() - LIST_LIMIT, 1))))
+                    .GET()
+                    .build();
+            case UPDATE -> {
+                // Rotate through the known ids so concurrent updates rarely hit the same row
+                Integer id = ids.pollFirst();
+                if (id == null) {
+                    yield this.request(Operation.CREATE);
+                }
+                ids.offerLast(id);
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(this.student(sequence.incrementAndGet())))
+                        .build();
+            }
+            case DELETE -> {
+                // Deletes take from the head too, while ids that were just updated sit at the tail
+                Integer id = ids.pollFirst();
+                if (id == null) {
+                    yield this.request(Operation.CREATE);
+                }
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE().build();
+            }
+            case BATCH -> this.batchRequest(batchSize);
+        };
+    }
+
+    private HttpRequest batchRequest(int size) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(this.student(sequence.incrementAndGet()));
+        }
+        body.append(']');
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private String student(int n) {
+        return String.format("{\"fullName\":\"Load Student %d\",\"age\":%d,\"email\":\"load%d@test.com\","
+                + "\"address\":\"Av. siempre viva #%d\",\"grade\":%.1f}", n, 18 + n % 40, n, n, (n % 100) / 10.0);
+    }
+
+    private void remember(Operation operation, String body) {
+        if (operation == Operation.CREATE) {
+            this.remember(JsonParser.parseString(body).getAsJsonObject());
+        } else if (operation == Operation.BATCH) {
+            JsonArray items = JsonParser.parseString(body).getAsJsonObject().getAsJsonArray("items");
+            for (JsonElement item : items) {
+                this.remember(item.getAsJsonObject());
+            }
+        }
+    }
+
+    private void remember(JsonObject student) {
+        JsonElement id = student.get("id");
+        if (id != null && !id.isJsonNull()) {
+            ids.offerLast(id.getAsInt());
+            maxId.accumulateAndGet(id.getAsInt(), Math::max);
+        }
+    }
+
+    private static final class Stats {
+        private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private void reset() {
+            latency.reset();
+            serviceTime.reset();
+            requests.reset();
+            errors.reset();
+        }
+
+        private StudentLoadReport.Endpoint toEndpoint(long elapsedNanos) {
+            Histogram latencyHistogram = latency.getIntervalHistogram();
+            Histogram serviceHistogram = serviceTime.getIntervalHistogram();
+            long count = requests.sum();
+            return new StudentLoadReport.Endpoint(count, errors.sum(),
+                    count / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)),
+                    StudentLoadReport.Percentiles.of(latencyHistogram),
+                    StudentLoadReport.Percentiles.of(serviceHistogram));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.bside.students.benchmarks;
+
+import com.google.gson.GsonBuilder;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of a {@link StudentLoadGenerator} run, written as JSON so runs can be compared by tools.
+ * Latencies are in milliseconds; {@code latency} includes the time a request waited past its
+ * schedule, {@code serviceTime} does not.
+ */
+public record StudentLoadReport(int rate, Map<StudentLoadGenerator.Operation, Integer> mix, int batchSize,
+                                long elapsedNanos, Map<StudentLoadGenerator.Operation, Endpoint> endpoints) {
+
+    public record Endpoint(long requests, long errors, double throughput, Percentiles latency,
+                           Percentiles serviceTime) {}
+
+    public record Percentiles(double mean, double p50, double p90, double p99, double p999, double max) {
+
+        static Percentiles of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Percentiles(0, 0, 0, 0, 0, 0);
+            }
+            return new Percentiles(millis(histogram.getMean()), millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double nanos) {
+            return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    public long requests() {
+        return endpoints.values().stream().mapToLong(Endpoint::requests).sum();
+    }
+
+    public long errors() {
+        return endpoints.values().stream().mapToLong(Endpoint::errors).sum();
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            new GsonBuilder().setPrettyPrinting().create().toJson(this, writer);
+        }
+    }
+
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format("%-7s %9s %7s %9s %9s %9s %9s %9s %11s%n", "op",
+                "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99 ms"));
+        endpoints.forEach((operation, endpoint) -> table.append(String.format(
+                "%-7s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %11.2f%n", operation.name().toLowerCase(),
+                endpoint.requests(), endpoint.errors(), endpoint.throughput(), endpoint.latency().p50(),
+                endpoint.latency().p99(), endpoint.latency().p999(), endpoint.latency().max(),
+                endpoint.serviceTime().p99())));
+        return table.toString();
+    }
+}
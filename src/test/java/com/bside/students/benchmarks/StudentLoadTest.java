@@ -0,0 +1,70 @@
+package com.bside.students.benchmarks;
+
+import com.bside.EjercicioPracticoApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fixed-rate mixed workload against v1/students on an embedded PostgreSQL, so the numbers do not
+ * depend on a shared database. Only runs with {@code mvn test -Pbenchmark}. Tune with
+ * -Dload.rate, -Dload.mix (e.g. create:20,list:50,update:20,delete:10,batch:0), -Dload.batch-size,
+ * -Dload.seed, -Dload.warmup-seconds, -Dload.duration-seconds and -Dload.report. -Dload.profiles
+ * activates Spring profiles, e.g. json-logs to compare the logging modes.
+ */
+@Tag("benchmark")
+public class StudentLoadTest {
+
+    private static final Logger log = LogManager.getLogger(StudentLoadTest.class);
+
+    private static final int RATE = Integer.getInteger("load.rate", 500);
+    private static final String MIX = System.getProperty("load.mix", "create:20,list:50,update:20,delete:10,batch:0");
+    private static final int BATCH_SIZE = Integer.getInteger("load.batch-size", 100);
+    private static final int SEED = Integer.getInteger("load.seed", 5000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-report.json"));
+    private static final String PROFILES = System.getProperty("load.profiles", "");
+
+    @Test
+    void mixedWorkload() throws Exception {
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(EjercicioPracticoApplication.class)
+                     .properties("server.port=0",
+                             "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                             "spring.datasource.username=postgres",
+                             "spring.datasource.password=postgres")
+                     .profiles(PROFILES.isBlank() ? new String[0] : PROFILES.split(","))
+                     .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            StudentLoadGenerator generator = new StudentLoadGenerator(client,
+                    "http://localhost:" + port + "/v1/students", RATE, StudentLoadGenerator.parseMix(MIX), BATCH_SIZE);
+            generator.seed(SEED);
+            generator.run(WARMUP);
+            StudentLoadReport report = generator.run(DURATION);
+            report.write(REPORT);
+
+            log.info("{} req/s offered for {} s, mix {}, profiles [{}]", RATE, DURATION.toSeconds(), MIX, PROFILES);
+            log.info("\n{}", report.format());
+            log.info("Report written to {}", REPORT.toAbsolutePath());
+
+            assertTrue(report.requests() > 0);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.bside.students.benchmarks;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.message.StringMapMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Logging cost of one request. {@code lines} is the default mode: the step by step info lines of
+ * StudentController and StudentServiceImpl, written synchronously with the console pattern.
+ * {@code event} is the json-logs profile: one summary event per request through the async logger
+ * and the JSON template layout. Both write to a file under target, so the console does not skew the
+ * numbers. The queue full policy is forced back to blocking, otherwise the async mode would just
+ * drop events once the ring buffer fills up. Compare under contention with
+ * {@code -Djmh.args="-t 8"}. Run with {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.asyncQueueFullPolicy=Default")
+public class StudentLoggingBenchmark {
+
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] [%X{correlationId}] %-40.40c{1.} : %m%n%xEx";
+
+    @Param({"lines", "event"})
+    private String mode;
+
+    private Path directory;
+    private LoggerContext context;
+    private Logger controllerLog;
+    private Logger serviceLog;
+    private Logger requestLog;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createDirectories(Path.of("target", "jmh-logging"));
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.setStatusLevel(Level.WARN);
+        builder.setConfigurationName("students-logging-benchmark");
+        if (mode.equals("event")) {
+            builder.add(builder.newAppender("File", "File")
+                    .addAttribute("fileName", directory.resolve("event.log").toString())
+                    .addAttribute("immediateFlush", false)
+                    .add(builder.newLayout("JsonTemplateLayout")
+                            .addAttribute("eventTemplateUri", "classpath:logging/students-log.json")));
+            builder.add(builder.newAsyncRootLogger(Level.INFO)
+                    .addAttribute("includeLocation", false)
+                    .add(builder.newAppenderRef("File")));
+        } else {
+            builder.add(builder.newAppender("File", "File")
+                    .addAttribute("fileName", directory.resolve("lines.log").toString())
+                    .add(builder.newLayout("PatternLayout").addAttribute("pattern", PATTERN)));
+            builder.add(builder.newRootLogger(Level.INFO).add(builder.newAppenderRef("File")));
+        }
+        context = Configurator.initialize(builder.build());
+        controllerLog = context.getLogger("com.bside.students.controllers.StudentController");
+        serviceLog = context.getLogger("com.bside.students.services.impl.StudentServiceImpl");
+        requestLog = context.getLogger("com.bside.students.requests");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Configurator.shutdown(context);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void request() {
+        int id = ThreadLocalRandom.current().nextInt(1, 100_000);
+        if (mode.equals("event")) {
+            requestLog.info(new StringMapMessage()
+                    .with("event", "request")
+                    .with("method", "GET")
+                    .with("uri", "/v1/students/{id}")
+                    .with("status", 200)
+                    .with("durationMs", 1.5)
+                    .with("operation", "getById")
+                    .with("sqlStatements", 1)
+                    .with("sqlTimeMs", 0.4));
+        } else {
+            controllerLog.info("Receive request to get student by id {} in controller", id);
+            serviceLog.info("[START] Init service to get student by id {}", id);
+            serviceLog.info("Try find entity student by id {}", id);
+            serviceLog.info("Convert entity student");
+            controllerLog.info("[END] Get student by id {} in controller", id);
+        }
+    }
+}
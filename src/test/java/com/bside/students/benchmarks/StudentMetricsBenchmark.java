@@ -0,0 +1,89 @@
+package com.bside.students.benchmarks;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost the metrics add to one request: the http.server.requests timer, one students.service timer
+ * and one repository timer, all with histogram buckets, looked up by tags the way the
+ * instrumentation does it. Compare {@code instrumentedRequest} with {@code bareRequest} under
+ * contention with {@code -Djmh.args="-t 8"}. Run with {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentMetricsBenchmark {
+
+    private static final String[] URIS = {"/v1/students", "/v1/students/{id}", "/v1/students/search"};
+
+    private MeterRegistry registry;
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    @Benchmark
+    public long bareRequest() {
+        return this.work();
+    }
+
+    @Benchmark
+    public long instrumentedRequest() {
+        String uri = URIS[ThreadLocalRandom.current().nextInt(URIS.length)];
+        long start = System.nanoTime();
+        long result = this.work();
+        Timer.builder("students.service").tags("class", "StudentServiceImpl", "method", "getById", "exception", "none")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Timer.builder("spring.data.repository.invocations").tags("repository", "StudentRepository",
+                        "method", "findById", "state", "SUCCESS", "exception", "None")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        Timer.builder("http.server.requests").tags("method", "GET", "uri", uri, "status", "200",
+                        "outcome", "SUCCESS", "exception", "none")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    @Benchmark
+    public void errorCounter() {
+        Counter.builder("students.errors").tags("exception", "ResourceNotFoundException", "status", "404")
+                .register(registry)
+                .increment();
+    }
+
+    @Benchmark
+    public String scrape() {
+        return ((PrometheusMeterRegistry) registry).scrape();
+    }
+
+    private long work() {
+        long value = 0;
+        for (int i = 0; i < 64; i++) {
+            value += ThreadLocalRandom.current().nextInt();
+        }
+        return value;
+    }
+}
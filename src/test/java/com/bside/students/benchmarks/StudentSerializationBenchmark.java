@@ -0,0 +1,54 @@
+package com.bside.students.benchmarks;
+
+import com.bside.students.dtos.StudentDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of {@code List<StudentDto>} with an ObjectMapper built the way Spring Boot
+ * builds the one the controllers use. Run with {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentSerializationBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<StudentDto> studentsDto;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, StudentDto.class));
+        studentsDto = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            studentsDto.add(new StudentDto(i + 1, "Student " + i, 18 + i % 40, "student" + i + "@test.com",
+                    "Street " + i, (i % 101) / 10.0, (long) i % 7));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(studentsDto);
+    }
+
+    @Benchmark
+    public byte[] serializeListUntyped() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(studentsDto);
+    }
+}
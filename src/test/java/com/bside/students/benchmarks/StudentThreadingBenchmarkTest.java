@@ -0,0 +1,155 @@
+package com.bside.students.benchmarks;
+
+import com.bside.EjercicioPracticoApplication;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Closed-loop load against GET v1/students with the same number of concurrent clients in
+ * platform-thread and virtual-thread mode. Only runs with {@code mvn test -Pbenchmark}; it needs the
+ * configured database and seeds it through the batch endpoint. Tune with -Dbenchmark.clients,
+ * -Dbenchmark.warmup-seconds, -Dbenchmark.duration-seconds and -Dbenchmark.seed.
+ */
+@Tag("benchmark")
+public class StudentThreadingBenchmarkTest {
+
+    private static final Logger log = LogManager.getLogger(StudentThreadingBenchmarkTest.class);
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+    private static final int SEED = Integer.getInteger("benchmark.seed", 1000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Result platform = this.run(false, SEED);
+        Result virtual = this.run(true, 0);
+
+        log.info("{} clients for {} s", CLIENTS, DURATION.toSeconds());
+        log.info(String.format("%-9s %10s %9s %9s %9s %9s %8s", "mode", "req/s", "p50 ms", "p99 ms", "p99.9 ms",
+                "max ms", "errors"));
+        log.info(platform.format("platform"));
+        log.info(virtual.format("virtual"));
+
+        assertTrue(platform.requests > 0);
+        assertTrue(virtual.requests > 0);
+    }
+
+    private Result run(boolean virtualThreads, int seed) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EjercicioPracticoApplication.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+                        "students.cache.invalidation.enabled=false")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            if (seed > 0) {
+                this.seed(client, port, seed);
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/students?limit=20"))
+                    .GET()
+                    .build();
+            this.load(client, request, WARMUP);
+            return this.load(client, request, DURATION);
+        }
+    }
+
+    private Result load(HttpClient client, HttpRequest request, Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>(CLIENTS);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                List<Long> clientLatencies = new ArrayList<>();
+                latencies.add(clientLatencies);
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        clientLatencies.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+        long[] all = latencies.stream().flatMap(List::stream).mapToLong(Long::longValue).toArray();
+        Arrays.sort(all);
+        return new Result(all, errors.get(), duration);
+    }
+
+    private void seed(HttpClient client, int port, int count) throws IOException, InterruptedException {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(String.format("{\"fullName\":\"Benchmark Student %d\",\"age\":%d,\"email\":\"benchmark%d@test.com\","
+                    + "\"address\":\"Av. siempre viva #%d\",\"grade\":%.1f}", i, 18 + i % 40, i, i, (i % 100) / 10.0));
+        }
+        body.append(']');
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/v1/students/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(response.statusCode(), 201);
+    }
+
+    private static final class Result {
+        private final long requests;
+        private final long errors;
+        private final double throughput;
+        private final long[] latencies;
+
+        private Result(long[] latencies, long errors, Duration duration) {
+            this.requests = latencies.length;
+            this.errors = errors;
+            this.throughput = latencies.length / (double) duration.toSeconds();
+            this.latencies = latencies;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        private String format(String mode) {
+            return String.format("%-9s %10.1f %9.2f %9.2f %9.2f %9.2f %8d", mode, throughput, percentileMillis(50),
+                    percentileMillis(99), percentileMillis(99.9), percentileMillis(100), errors);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.bside.students.benchmarks;
+
+import com.bside.students.dtos.StudentDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation of {@link StudentDto}, as done per item by the batch endpoint and per request by
+ * {@code @Valid}. One in ten students is invalid so the violation path is part of the cost. Run
+ * with {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentValidationBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private List<StudentDto> studentsDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        studentsDto = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String email = i % 10 == 9 ? "student" + i : "student" + i + "@test.com";
+            studentsDto.add(new StudentDto("Student " + i, 18 + i % 40, email, "Street " + i, (i % 101) / 10.0));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public int validate() {
+        int violations = 0;
+        for (StudentDto studentDto : studentsDto) {
+            Set<ConstraintViolation<StudentDto>> result = validator.validate(studentDto);
+            violations += result.size();
+        }
+        return violations;
+    }
+}
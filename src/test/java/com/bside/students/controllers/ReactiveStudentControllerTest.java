@@ -0,0 +1,206 @@
+package com.bside.students.controllers;
+
+import com.bside.errors.PreconditionFailedException;
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.services.ReactiveStudentService;
+import com.bside.students.services.StudentLeaderboardService;
+import com.bside.students.services.StudentLookupService;
+import com.bside.students.services.StudentStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveStudentController.class)
+@ActiveProfiles("reactive")
+public class ReactiveStudentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveStudentService reactiveStudentService;
+
+    @MockBean
+    private StudentLookupService studentLookupService;
+
+    @MockBean
+    private StudentStatsService studentStatsService;
+
+    @MockBean
+    private StudentLeaderboardService studentLeaderboardService;
+
+    @Test
+    void testCreate() {
+        StudentDto studentDto = new StudentDto("David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(reactiveStudentService.create(any(StudentDto.class))).thenReturn(Mono.just(new StudentDto(1,
+                "David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L)));
+
+        webTestClient.post().uri("/v1/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(studentDto)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.version").isEqualTo(0);
+
+        verify(reactiveStudentService, times(1)).create(any(StudentDto.class));
+    }
+
+    @Test
+    void testCreateBadRequest() {
+        StudentDto studentDto = new StudentDto("", 30, "not-an-email", null, 6.7);
+
+        webTestClient.post().uri("/v1/students")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(studentDto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.fullName").isEqualTo("The name is mandatory")
+                .jsonPath("$.email").isEqualTo("The email will be valid");
+
+        verify(reactiveStudentService, never()).create(any(StudentDto.class));
+    }
+
+    @Test
+    void testGetAll() {
+        List<StudentDto> students = List.of(
+                new StudentDto(1, "David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L),
+                new StudentDto(2, "Ana López", 22, "ana.lopez@test.com", "Calle 5", 9.1, 0L));
+
+        when(reactiveStudentService.getAll(null, 2)).thenReturn(Mono.just(new StudentPageDto<>(students, 2, 2)));
+
+        webTestClient.get().uri("/v1/students?limit=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.students.length()").isEqualTo(2)
+                .jsonPath("$.nextCursor").isEqualTo(2)
+                .jsonPath("$.limit").isEqualTo(2);
+    }
+
+    @Test
+    void testStream() {
+        when(reactiveStudentService.stream(5, 2)).thenReturn(Flux.just(
+                new StudentDto(6, "David Martínez", 30, "david.martinez@test.com", null, 6.7, 0L),
+                new StudentDto(7, "Ana López", 22, "ana.lopez@test.com", null, 9.1, 0L)));
+
+        List<StudentDto> students = webTestClient.get().uri("/v1/students/stream?after=5&limit=2")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(StudentDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(students);
+        assertEquals(List.of(6, 7), students.stream().map(StudentDto::getId).toList());
+    }
+
+    @Test
+    void testGetByIdNotModified() {
+        when(reactiveStudentService.getById(1)).thenReturn(Mono.just(new StudentDto(1,
+                "David Martínez", 30, "david.martinez@test.com", null, 6.7, 3L)));
+
+        webTestClient.get().uri("/v1/students/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+
+        webTestClient.get().uri("/v1/students/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testGetByIdNotFound() {
+        when(reactiveStudentService.getById(1))
+                .thenReturn(Mono.error(new ResourceNotFoundException("The student with id: 1 not found")));
+
+        webTestClient.get().uri("/v1/students/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("The student with id: 1 not found");
+    }
+
+    @Test
+    void testExport() {
+        when(reactiveStudentService.export()).thenReturn(Flux.range(1, 3)
+                .map(id -> new StudentDto(id, "Student " + id, 20, "student" + id + "@test.com", null, 7.0, 0L)));
+
+        List<StudentDto> students = webTestClient.get().uri("/v1/students/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(StudentDto.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(students);
+        assertEquals(3, students.size());
+    }
+
+    @Test
+    void testPatchPreconditionFailed() {
+        when(reactiveStudentService.patch(eq(1), any(StudentPatchDto.class), eq(2L)))
+                .thenReturn(Mono.error(new PreconditionFailedException("The student with id: 1 was modified by another request")));
+
+        webTestClient.patch().uri("/v1/students/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new StudentPatchDto(null, null, null, null, 8.0))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @Test
+    void testDeleteIfMatchList() {
+        when(reactiveStudentService.delete(1, 2L))
+                .thenReturn(Mono.error(new PreconditionFailedException("The student with id: 1 was modified by another request")));
+        when(reactiveStudentService.delete(1, 3L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/v1/students/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\", \"3\"")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(reactiveStudentService, times(1)).delete(1, 3L);
+    }
+
+    @Test
+    void testDeleteInternalError() {
+        when(reactiveStudentService.delete(1, null)).thenReturn(Mono.error(new IllegalStateException("Connection refused")));
+
+        webTestClient.delete().uri("/v1/students/1")
+                .exchange()
+                .expectStatus().is5xxServerError()
+                .expectBody()
+                .jsonPath("$.detail")
+                .isEqualTo("There was an error while trying to delete the student. Please check the logs.");
+    }
+}
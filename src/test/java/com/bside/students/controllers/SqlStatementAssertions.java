@@ -0,0 +1,29 @@
+package com.bside.students.controllers;
+
+import com.bside.students.metrics.SqlStatementStats;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fails when an operation runs more SQL statements than allowed. The request filter joins the
+ * stats started here, so with MockMvc everything the request does on the calling thread counts.
+ */
+final class SqlStatementAssertions {
+
+    private SqlStatementAssertions() {
+    }
+
+    static <T> T assertMaxStatements(int max, Callable<T> operation) throws Exception {
+        SqlStatementStats stats = SqlStatementStats.start();
+        try {
+            T result = operation.call();
+            assertTrue(stats.getStatements() <= max, () -> "Expected at most " + max + " statements but "
+                    + stats.getStatements() + " ran: " + stats.getQueries());
+            return result;
+        } finally {
+            SqlStatementStats.stop();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.bside.students.controllers;
+
+import com.google.gson.JsonParser;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Writes under more concurrency than the connection pool has connections, with the virtual thread
+ * limiter in front of the pool and cache invalidation on. A request that needed a second connection
+ * while holding its first would leave every permit taken and the writes would time out.
+ */
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "spring.datasource.hikari.maximum-pool-size=" +
+        StudentControllerConcurrencyTest.POOL_SIZE, "spring.datasource.hikari.connection-timeout=5000",
+        "students.db.acquire-timeout-ms=5000", "students.cache.invalidation.enabled=true",
+        "students.lookup.backend=memory", "students.stats.backend=memory"})
+@AutoConfigureMockMvc
+public class StudentControllerConcurrencyTest {
+
+    static final int POOL_SIZE = 3;
+    private static final int WRITERS = POOL_SIZE * 5;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void testConcurrentUpdatesDoNotExhaustThePool() throws Exception {
+        List<Integer> ids = new ArrayList<>(WRITERS);
+        for (int i = 0; i < WRITERS; i++) {
+            MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students")
+                            .content(this.student(i, 6.0))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            ids.add(JsonParser.parseString(created.getResponse().getContentAsString())
+                    .getAsJsonObject().get("id").getAsInt());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> updates = new ArrayList<>(WRITERS);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < WRITERS; i++) {
+                int index = i;
+                updates.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/" + ids.get(index))
+                                    .content(this.student(index, 9.0))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                            .andReturn()
+                            .getResponse()
+                            .getStatus();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> update : updates) {
+                assertEquals(200, update.get(30, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    private String student(int index, double grade) {
+        return String.format(Locale.ROOT, "{\"fullName\":\"Concurrent Student %d\",\"age\":20,\"email\":\"concurrent%d@test.com\","
+                + "\"grade\":%.1f}", index, index, grade);
+    }
+}
@@ -0,0 +1,175 @@
+package com.bside.students.controllers;
+
+import com.bside.students.metrics.SqlProfilingResponseAdvice;
+import com.google.gson.JsonParser;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.IOException;
+
+import static com.bside.students.controllers.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Round-trip budget of each StudentController operation against a real PostgreSQL, so a change
+ * that adds statements to a request fails the build. Cache invalidation is on, so every successful
+ * write also pays for its NOTIFY, sent on the write's own connection.
+ */
+@SpringBootTest(properties = {"students.cache.invalidation.enabled=true", "students.lookup.backend=memory",
+        "students.stats.backend=memory"})
+@AutoConfigureMockMvc
+public class StudentControllerStatementCountTest {
+
+    // The pg_notify that tells the other nodes about a committed write
+    private static final int NOTIFY = 1;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void testStatementsPerOperation() throws Exception {
+        String student = "{\"fullName\":\"David Martínez\",\"age\":30,\"email\":\"david.martinez@test.com\","
+                + "\"address\":\"Av. siempre viva #124\",\"grade\":6.7}";
+
+        // nextval for a new block of ids and the insert
+        MvcResult created = assertMaxStatements(2 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.post("/v1/students")
+                        .content(student)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(SqlProfilingResponseAdvice.STATEMENTS_HEADER))
+                .andReturn());
+        int id = JsonParser.parseString(created.getResponse().getContentAsString()).getAsJsonObject().get("id").getAsInt();
+
+        assertMaxStatements(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students?limit=10"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // The insert put the student in the entity region, so the read by id never reaches the database
+        assertMaxStatements(0, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/" + id))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        assertMaxStatements(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search?minAge=18"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        assertMaxStatements(1 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/" + id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .content(student)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        // An unconditional update takes its new version from the same statement; the NOTIFY goes out with it
+        assertMaxStatements(1 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/" + id)
+                        .content(student)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlProfilingResponseAdvice.STATEMENTS_HEADER, String.valueOf(1 + NOTIFY)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andReturn());
+
+        // A single update ... returning: the patched row gives the ETag and feeds the in-memory indexes
+        assertMaxStatements(1 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.patch("/v1/students/" + id)
+                        .content("{\"grade\":8.5}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andReturn());
+
+        // A failed conditional delete checks whether the row exists to tell 412 from 404, and notifies nobody
+        assertMaxStatements(2, () -> mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/" + id)
+                        .header(HttpHeaders.IF_MATCH, "\"0\""))
+                .andExpect(status().isPreconditionFailed())
+                .andReturn());
+
+        assertMaxStatements(1 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/" + id))
+                .andExpect(status().isOk())
+                .andReturn());
+    }
+
+    @Test
+    void testSearchIsServedFromQueryCache() throws Exception {
+        String student = "{\"fullName\":\"Query Cache\",\"age\":30,\"email\":\"query.cache@test.com\","
+                + "\"address\":\"Av. siempre viva #124\",\"grade\":6.7}";
+        MvcResult created = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students")
+                        .content(student)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn();
+        int id = JsonParser.parseString(created.getResponse().getContentAsString()).getAsJsonObject().get("id").getAsInt();
+
+        assertMaxStatements(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search?namePrefix=Query"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].grade").value(6.7))
+                .andReturn());
+
+        // Same query and no write in between: answered by the Hibernate query cache
+        assertMaxStatements(0, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search?namePrefix=Query"))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/v1/students/" + id)
+                        .content("{\"grade\":9.5}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent());
+
+        assertMaxStatements(1, () -> mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search?namePrefix=Query"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students[0].grade").value(9.5))
+                .andReturn());
+    }
+
+    @Test
+    void testBatchStatements() throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            body.append(String.format("{\"fullName\":\"Batch Student %d\",\"age\":20,\"email\":\"batch%d@test.com\","
+                    + "\"grade\":7.0}", i, i));
+        }
+        body.append(']');
+
+        // Three blocks of 50 ids and three JDBC batches of inserts, all in one chunk with a single NOTIFY
+        MvcResult result = assertMaxStatements(6 + NOTIFY, () -> mockMvc.perform(MockMvcRequestBuilders.post("/v1/students/batch")
+                        .content(body.toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andReturn());
+
+        assertNotNull(result);
+    }
+}
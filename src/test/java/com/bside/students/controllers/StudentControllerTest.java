@@ -1,29 +1,61 @@
 package com.bside.students.controllers;
 
+import com.bside.errors.BadRequestException;
+import com.bside.errors.PreconditionFailedException;
 import com.bside.errors.ResourceNotFoundException;
+import com.bside.errors.TooManyRequestsException;
+import com.bside.students.caches.StudentListingSnapshot;
+import com.bside.students.dtos.StudentBatchItemDto;
+import com.bside.students.dtos.StudentBatchResultDto;
 import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentGradeStatsDto;
+import com.bside.students.dtos.StudentImportResultDto;
+import com.bside.students.dtos.StudentLookupDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentRankDto;
+import com.bside.students.dtos.StudentSearchDto;
+import com.bside.students.dtos.StudentStatsDto;
+import com.bside.students.dtos.StudentWriteStatusDto;
+import com.bside.students.logging.RequestLogFilter;
 import com.bside.students.models.Student;
+import com.bside.students.services.StudentImportService;
+import com.bside.students.services.StudentLeaderboardService;
+import com.bside.students.services.StudentLookupService;
 import com.bside.students.services.StudentService;
+import com.bside.students.services.StudentStatsService;
+import com.bside.students.services.StudentWriteBehindService;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +69,21 @@ public class StudentControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private StudentLookupService studentLookupService;
+
+    @MockBean
+    private StudentStatsService studentStatsService;
+
+    @MockBean
+    private StudentLeaderboardService studentLeaderboardService;
+
+    @MockBean
+    private StudentWriteBehindService studentWriteBehindService;
+
     @BeforeEach
     void setUp(){
 
@@ -67,6 +114,86 @@ public class StudentControllerTest {
         verify(studentService, times(1)).create(any(StudentDto.class));
     }
 
+    @Test
+    void testCreateWriteBehind() throws Exception {
+        StudentDto studentDto = new StudentDto("David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentWriteBehindService.isEnabled()).thenReturn(true);
+        when(studentWriteBehindService.enqueue(any(StudentDto.class)))
+                .thenReturn(StudentWriteStatusDto.pending("token-1"));
+
+        Gson gson = new GsonBuilder().create();
+        var studentJson = gson.toJson(studentDto);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students")
+                        .content(studentJson)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isAccepted())
+                        .andExpect(header().string(HttpHeaders.LOCATION, "/v1/students/writes/token-1"))
+                        .andExpect(jsonPath("$.status").value(StudentWriteStatusDto.PENDING))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentWriteBehindService, times(1)).enqueue(any(StudentDto.class));
+        verify(studentService, never()).create(any(StudentDto.class));
+    }
+
+    @Test
+    void testCreateWriteBehindQueueFull() throws Exception {
+        StudentDto studentDto = new StudentDto("David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentWriteBehindService.isEnabled()).thenReturn(true);
+        when(studentWriteBehindService.enqueue(any(StudentDto.class)))
+                .thenThrow(new TooManyRequestsException("The write queue is full, retry later", 1));
+
+        Gson gson = new GsonBuilder().create();
+        var studentJson = gson.toJson(studentDto);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students")
+                        .content(studentJson)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isTooManyRequests())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                        .andReturn();
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testGetWriteStatus() throws Exception {
+
+        when(studentWriteBehindService.getStatus(any()))
+                .thenReturn(new StudentWriteStatusDto("token-1", StudentWriteStatusDto.CREATED, 7, null));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/writes/token-1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.status").value(StudentWriteStatusDto.CREATED))
+                        .andExpect(jsonPath("$.id").value(7))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentWriteBehindService, times(1)).getStatus("token-1");
+    }
+
+    @Test
+    void testGetWriteStatusNotFound() throws Exception {
+
+        when(studentWriteBehindService.getStatus(any()))
+                .thenThrow(new ResourceNotFoundException("The write with token: token-1 not found"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/writes/token-1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        assertNotNull(result);
+    }
+
     @Test
     void testCreateInternalErrorException() throws Exception {
         StudentDto studentDto = new StudentDto("David Martínez", 30,
@@ -109,6 +236,128 @@ public class StudentControllerTest {
         assertEquals(result.getResponse().getStatus(), HttpStatus.BAD_REQUEST.value());
     }
 
+    @Test
+    void testCreateBatch() throws Exception {
+        List<StudentDto> studentsDto = List.of(
+                new StudentDto("David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7),
+                new StudentDto("Isabella Díaz", 25, "isabella.diaz@test.com", "Av. siempre viva #124", 9.4));
+        StudentBatchItemDto first = new StudentBatchItemDto(0);
+        first.created(1);
+        StudentBatchItemDto second = new StudentBatchItemDto(1);
+        second.created(2);
+
+        when(studentService.createBatch(any()))
+                .thenReturn(new StudentBatchResultDto(2, 0, List.of(first, second)));
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students/batch")
+                        .content(gson.toJson(studentsDto))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.created").value(2))
+                        .andExpect(jsonPath("$.items[1].id").value(2))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).createBatch(any());
+    }
+
+    @Test
+    void testCreateBatchPartialFailure() throws Exception {
+        List<StudentDto> studentsDto = List.of(
+                new StudentDto("David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7),
+                new StudentDto("", -2, "david.martinez", "Av. siempre viva #124", 6.7));
+        StudentBatchItemDto first = new StudentBatchItemDto(0);
+        first.created(1);
+        StudentBatchItemDto second = new StudentBatchItemDto(1);
+        second.failed(Map.of("email", "The email will be valid"));
+
+        when(studentService.createBatch(any()))
+                .thenReturn(new StudentBatchResultDto(1, 1, List.of(first, second)));
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students/batch")
+                        .content(gson.toJson(studentsDto))
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isMultiStatus())
+                        .andExpect(jsonPath("$.items[1].status").value(StudentBatchItemDto.FAILED))
+                        .andReturn();
+
+        assertNotNull(result);
+        assertEquals(result.getResponse().getStatus(), HttpStatus.MULTI_STATUS.value());
+    }
+
+    @Test
+    void testImportCsv() throws Exception {
+        StudentImportResultDto importResult = new StudentImportResultDto();
+        importResult.setRowsRead(2);
+        importResult.imported(2);
+
+        when(studentImportService.importCsv(any())).thenReturn(importResult);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students/import")
+                        .content("fullName,age,email,address,grade\n"
+                                + "David Martínez,30,david.martinez@test.com,Av. siempre viva #124,6.7\n")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType("text/csv"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.rowsImported").value(2))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentImportService, times(1)).importCsv(any());
+    }
+
+    @Test
+    void testImportCsvBadRequest() throws Exception {
+
+        when(studentImportService.importCsv(any())).thenThrow(new BadRequestException("The file is empty"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/v1/students/import")
+                        .content("")
+                        .contentType("text/csv"))
+                        .andExpect(status().isBadRequest())
+                        .andReturn();
+
+        assertEquals(result.getResponse().getStatus(), HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    void testGetAllFromSnapshot() throws Exception {
+        byte[] json = "{\"students\":[{\"id\":1}],\"nextCursor\":null,\"limit\":50}".getBytes(StandardCharsets.UTF_8);
+        byte[] gzip = {31, -117, 8, 0};
+
+        when(studentService.getListingSnapshot()).thenReturn(Optional.of(new StudentListingSnapshot(3L, json, gzip)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/students"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.students[0].id").value(1));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        assertArrayEquals(gzip, result.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/students").param("limit", "10"))
+                .andExpect(status().isOk());
+
+        verify(studentService, times(3)).getListingSnapshot();
+        verify(studentService, times(1)).getAll(null, 10);
+    }
+
     @Test
     void testGetAll() throws Exception {
 
@@ -118,23 +367,215 @@ public class StudentControllerTest {
         List<StudentDto> students = new ArrayList<StudentDto>();
         students.add(student);
 
-        when(studentService.getAll()).thenReturn(students);
+        when(studentService.getAll(any(), any())).thenReturn(new StudentPageDto<>(students, null, 50));
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
                         .contentType(MediaType.APPLICATION_JSON))
                         .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.students[0].id").value(1))
                         .andReturn();
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.OK.value());
-        verify(studentService, times(1)).getAll();
+        verify(studentService, times(1)).getAll(null, null);
+
+    }
+
+    @Test
+    void testGetAllWithCursor() throws Exception {
+
+        StudentDto student = new StudentDto(11, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        List<StudentDto> students = new ArrayList<StudentDto>();
+        students.add(student);
+
+        when(studentService.getAll(any(), any())).thenReturn(new StudentPageDto<>(students, 11, 1));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
+                        .param("after", "10")
+                        .param("limit", "1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.nextCursor").value(11))
+                        .andExpect(jsonPath("$.limit").value(1))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).getAll(10, 1);
+    }
+
+    @Test
+    void testGetAllWithFields() throws Exception {
+
+        Map<String, Object> student = Map.of("id", 1, "fullName", "David Martínez");
+
+        when(studentService.getAll(any(), any(), anyList()))
+                .thenReturn(new StudentPageDto<>(List.of(student), null, 50));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
+                        .param("fields", "fullName")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.students[0].fullName").value("David Martínez"))
+                        .andExpect(jsonPath("$.students[0].email").doesNotExist())
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).getAll(null, null, List.of("fullName"));
+        verify(studentService, never()).getAll(any(), any());
+    }
+
+    @Test
+    void testGetAllWithUnknownFieldBadRequest() throws Exception {
+
+        when(studentService.getAll(any(), any(), anyList()))
+                .thenThrow(new BadRequestException("The field password does not exist"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
+                        .param("fields", "password")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testSearch() throws Exception {
+
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentService.search(any(StudentSearchDto.class), any(), any()))
+                .thenReturn(new StudentPageDto<>(List.of(student), null, 50));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search")
+                        .param("minAge", "20")
+                        .param("maxGrade", "7.5")
+                        .param("emailPrefix", "david")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.students[0].id").value(1))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).search(argThat(search -> search.getMinAge() == 20
+                && search.getMaxGrade() == 7.5 && "david".equals(search.getEmailPrefix())
+                && search.getMaxAge() == null), isNull(), isNull());
+    }
+
+    @Test
+    void testSearchBadRequest() throws Exception {
+
+        when(studentService.search(any(StudentSearchDto.class), any(), any()))
+                .thenThrow(new BadRequestException("The minimum age cannot be greater than the maximum age"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/search")
+                        .param("minAge", "30")
+                        .param("maxAge", "20")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testLookup() throws Exception {
+
+        StudentLookupDto student = new StudentLookupDto(1, "David Martínez",
+                "david.martinez@test.com", "Av. siempre viva #124", 0.8);
+
+        when(studentLookupService.lookup(any(), any())).thenReturn(List.of(student));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/lookup")
+                        .param("q", "davd")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[0].id").value(1))
+                        .andExpect(jsonPath("$[0].score").value(0.8))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentLookupService, times(1)).lookup("davd", null);
+    }
+
+    @Test
+    void testLookupBadRequest() throws Exception {
+
+        when(studentLookupService.lookup(any(), any()))
+                .thenThrow(new BadRequestException("The query cannot be empty"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/lookup")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        assertNotNull(result);
+    }
+
+    @Test
+    void testGetStats() throws Exception {
+
+        StudentGradeStatsDto overall = new StudentGradeStatsDto(null, 3, 8.0, 6.0, 10.0,
+                8.0, 9.6, 9.96, List.of());
+        StudentGradeStatsDto band = new StudentGradeStatsDto("18-24", 2, 7.0, 6.0, 8.0,
+                7.0, 7.8, 7.98, List.of());
+
+        when(studentStatsService.getStats()).thenReturn(new StudentStatsDto(overall, List.of(band)));
 
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/stats")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.overall.count").value(3))
+                        .andExpect(jsonPath("$.overall.p90").value(9.6))
+                        .andExpect(jsonPath("$.ageBands[0].ageBand").value("18-24"))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentStatsService, times(1)).getStats();
+    }
+
+    @Test
+    void testGetTop() throws Exception {
+
+        StudentRankDto first = new StudentRankDto(1, 1, "David Martínez", 9.0);
+        StudentRankDto second = new StudentRankDto(1, 3, "Mateo López", 9.0);
+
+        when(studentLeaderboardService.getTop(any())).thenReturn(List.of(first, second));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/top")
+                        .param("n", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$[1].id").value(3))
+                        .andExpect(jsonPath("$[1].rank").value(1))
+                        .andReturn();
+
+        assertNotNull(result);
+        verify(studentLeaderboardService, times(1)).getTop(2);
+    }
+
+    @Test
+    void testGetRankNotFound() throws Exception {
+
+        when(studentLeaderboardService.getRank(any(Integer.class)))
+                .thenThrow(new ResourceNotFoundException("The student with id: 1 not found"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1/rank")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        assertNotNull(result);
+        verify(studentLeaderboardService, times(1)).getRank(1);
     }
 
     @Test
     void testGetAllInternalErrorException() throws Exception {
 
-        when(studentService.getAll())
+        when(studentService.getAll(any(), any()))
                 .thenThrow(new RuntimeException("Authenticate DB failed"));
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students")
@@ -144,7 +585,137 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.INTERNAL_SERVER_ERROR.value());
-        verify(studentService, times(1)).getAll();
+        verify(studentService, times(1)).getAll(any(), any());
+    }
+
+    @Test
+    void testGetById() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentService.getById(any(Integer.class))).thenReturn(student);
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullName").value("David Martínez"))
+                .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).getById(1);
+    }
+
+    @Test
+    void testGetByIdRecordsJfrEvents() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentService.getById(any(Integer.class))).thenReturn(student);
+
+        Path file = Files.createTempFile("students", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.bside.students.Request").withThreshold(Duration.ZERO);
+            recording.enable("com.bside.students.Serialization").withThreshold(Duration.ZERO);
+            recording.start();
+            mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1"))
+                    .andExpect(status().isOk());
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent request = events.stream()
+                    .filter(event -> event.getEventType().getName().equals("com.bside.students.Request"))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals("getById", request.getString("operation"));
+            assertEquals("/v1/students/{id}", request.getString("uri"));
+            assertEquals(1, request.getInt("studentId"));
+            assertEquals(200, request.getInt("status"));
+            assertTrue(events.stream().anyMatch(event ->
+                    event.getEventType().getName().equals("com.bside.students.Serialization")
+                            && event.getInt("studentId") == 1));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testGetByIdCorrelationId() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentService.getById(any(Integer.class))).thenReturn(student);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1")
+                        .header(RequestLogFilter.CORRELATION_HEADER, "client-42"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestLogFilter.CORRELATION_HEADER, "client-42"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1")
+                        .header(RequestLogFilter.CORRELATION_HEADER, "not valid\r\n"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String generated = result.getResponse().getHeader(RequestLogFilter.CORRELATION_HEADER);
+        assertNotNull(generated);
+        assertNotEquals("not valid\r\n", generated);
+        assertTrue(generated.matches("[0-9a-f]+"));
+    }
+
+    @Test
+    void testGetByIdNotModified() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        student.setVersion(3L);
+
+        when(studentService.getById(any(Integer.class))).thenReturn(student);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals(result.getResponse().getContentLength(), 0);
+    }
+
+    @Test
+    void testGetByIdNotFoundException() throws Exception {
+
+        when(studentService.getById(any(Integer.class)))
+                .thenThrow(new ResourceNotFoundException("The student not found"));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/1")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        assertEquals(result.getResponse().getStatus(), HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    void testExport() throws Exception {
+
+        when(studentService.export(any())).thenAnswer(invocation -> {
+            Consumer<StudentDto> consumer = invocation.getArgument(0);
+            consumer.accept(new StudentDto(1, "David Martínez", 30,
+                    "david.martinez@test.com", "Av. siempre viva #124", 6.7));
+            consumer.accept(new StudentDto(2, "Isabella Díaz", 25,
+                    "isabella.diaz@test.com", "Av. siempre viva #124", 9.4));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/v1/students/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(result.getResponse().getContentType(), "application/x-ndjson;charset=UTF-8");
+        assertEquals(lines.length, 2);
+        assertTrue(lines[1].contains("\"id\":2"));
+        verify(studentService, times(1)).export(any());
     }
 
     @Test
@@ -154,7 +725,7 @@ public class StudentControllerTest {
         Optional<Student> student = Optional.of(new Student(1, "David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7));
 
-        when(studentService.update(any(Integer.class), any(StudentDto.class)))
+        when(studentService.update(any(Integer.class), any(StudentDto.class), any()))
                 .thenReturn(student);
 
         Gson gson = new GsonBuilder().create();
@@ -170,7 +741,7 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.OK.value());
-        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class));
+        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class), any());
     }
 
     @Test
@@ -178,7 +749,7 @@ public class StudentControllerTest {
         StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
-        when(studentService.update(any(Integer.class), any(StudentDto.class)))
+        when(studentService.update(any(Integer.class), any(StudentDto.class), any()))
                 .thenThrow(new Exception("Authenticate DB failed"));
 
         Gson gson = new GsonBuilder().create();
@@ -193,7 +764,104 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.INTERNAL_SERVER_ERROR.value());
-        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class));
+        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class), any());
+    }
+
+    @Test
+    void testUpdateIfMatch() throws Exception {
+        StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        Student student = new Student(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        student.setVersion(4L);
+
+        when(studentService.update(any(Integer.class), any(StudentDto.class), any()))
+                .thenReturn(Optional.of(student));
+
+        Gson gson = new GsonBuilder().create();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(gson.toJson(studentDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(studentService, times(1)).update(eq(1), any(StudentDto.class), eq(3L));
+    }
+
+    @Test
+    void testUpdatePreconditionFailedException() throws Exception {
+        StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentService.update(any(Integer.class), any(StudentDto.class), any()))
+                .thenThrow(new PreconditionFailedException("The student was modified by another request"));
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(gson.toJson(studentDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andReturn();
+
+        assertEquals(result.getResponse().getStatus(), HttpStatus.PRECONDITION_FAILED.value());
+        verify(studentService, times(1)).update(eq(1), any(StudentDto.class), eq(3L));
+    }
+
+    @Test
+    void testUpdateWeakIfMatch() throws Exception {
+        StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        Gson gson = new GsonBuilder().create();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .content(gson.toJson(studentDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(studentService, never()).update(any(Integer.class), any(StudentDto.class), any());
+    }
+
+    @Test
+    void testUpdateIfMatchList() throws Exception {
+        StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        Student student = new Student(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        student.setVersion(5L);
+
+        when(studentService.update(eq(1), any(StudentDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("The student was modified by another request"));
+        when(studentService.update(eq(1), any(StudentDto.class), eq(4L)))
+                .thenReturn(Optional.of(student));
+
+        Gson gson = new GsonBuilder().create();
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/v1/students/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\", W/\"7\", \"4\"")
+                        .content(gson.toJson(studentDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+        verify(studentService, never()).update(eq(1), any(StudentDto.class), eq(7L));
+    }
+
+    @Test
+    void testDeleteIfMatchAnyNotFound() throws Exception {
+        doThrow(new ResourceNotFoundException("The student with id: 1 was not found"))
+                .when(studentService).delete(1, null);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/1")
+                        .header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(studentService, times(1)).delete(1, null);
     }
 
     @Test
@@ -220,7 +888,7 @@ public class StudentControllerTest {
         StudentDto studentDto = new StudentDto(1,"David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
-        when(studentService.update(any(Integer.class), any(StudentDto.class)))
+        when(studentService.update(any(Integer.class), any(StudentDto.class), any()))
                 .thenThrow(new ResourceNotFoundException("The student not found"));
 
         Gson gson = new GsonBuilder().create();
@@ -235,14 +903,69 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.NOT_FOUND.value());
-        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class));
+        verify(studentService, times(1)).update(any(Integer.class), any(StudentDto.class), any());
+    }
+
+    @Test
+    void testPatch() throws Exception {
+        StudentPatchDto studentPatchDto = new StudentPatchDto(null, null, null, null, 8.2);
+
+        when(studentService.patch(any(Integer.class), any(StudentPatchDto.class), any())).thenReturn(null);
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/v1/students/1")
+                        .content(gson.toJson(studentPatchDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNoContent())
+                .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, times(1)).patch(any(Integer.class), any(StudentPatchDto.class), any());
+    }
+
+    @Test
+    void testPatchValidateException() throws Exception {
+        StudentPatchDto studentPatchDto = new StudentPatchDto(" ", -2, "david.martinez", null, null);
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/v1/students/1")
+                        .content(gson.toJson(studentPatchDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fullName").exists())
+                .andExpect(jsonPath("$.age").exists())
+                .andExpect(jsonPath("$.email").exists())
+                .andReturn();
+
+        assertNotNull(result);
+        verify(studentService, never()).patch(any(Integer.class), any(StudentPatchDto.class), any());
+    }
+
+    @Test
+    void testPatchNotFoundException() throws Exception {
+        StudentPatchDto studentPatchDto = new StudentPatchDto(null, 31, null, null, null);
+
+        doThrow(new ResourceNotFoundException("The student not found"))
+                .when(studentService).patch(any(Integer.class), any(StudentPatchDto.class), any());
+
+        Gson gson = new GsonBuilder().create();
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.patch("/v1/students/1")
+                        .content(gson.toJson(studentPatchDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        assertEquals(result.getResponse().getStatus(), HttpStatus.NOT_FOUND.value());
     }
 
     @Test
     void testDelete() throws Exception {
         Integer id = 1;
 
-        doNothing().when(studentService).delete(any(Integer.class));
+        doNothing().when(studentService).delete(any(Integer.class), any());
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/" + id)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -251,14 +974,14 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.OK.value());
-        verify(studentService, times(1)).delete(any(Integer.class));
+        verify(studentService, times(1)).delete(any(Integer.class), any());
     }
 
     @Test
     void testDeleteInternalErrorException() throws Exception {
         Integer id = 1;
 
-        doThrow(new Exception("Database error")).when(studentService).delete(any(Integer.class));
+        doThrow(new Exception("Database error")).when(studentService).delete(any(Integer.class), any());
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/" + id)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -267,14 +990,14 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.INTERNAL_SERVER_ERROR.value());
-        verify(studentService, times(1)).delete(any(Integer.class));
+        verify(studentService, times(1)).delete(any(Integer.class), any());
     }
 
     @Test
     void testDeleteNotFoundException() throws Exception {
         Integer id = 1;
 
-        doThrow(new ResourceNotFoundException("The student not found")).when(studentService).delete(any(Integer.class));
+        doThrow(new ResourceNotFoundException("The student not found")).when(studentService).delete(any(Integer.class), any());
 
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders.delete("/v1/students/" + id)
                         .contentType(MediaType.APPLICATION_JSON))
@@ -283,7 +1006,7 @@ public class StudentControllerTest {
 
         assertNotNull(result);
         assertEquals(result.getResponse().getStatus(), HttpStatus.NOT_FOUND.value());
-        verify(studentService, times(1)).delete(any(Integer.class));
+        verify(studentService, times(1)).delete(any(Integer.class), any());
     }
 
 }
@@ -0,0 +1,106 @@
+package com.bside.students.services;
+
+import com.bside.errors.BadRequestException;
+import com.bside.students.caches.StudentCacheNotifier;
+import com.bside.students.dtos.StudentImportResultDto;
+import com.bside.students.models.Student;
+import com.bside.students.repositories.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "students.import.chunk-size=2")
+public class StudentImportServiceTest {
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @MockBean
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv() throws Exception {
+        String csv = "fullName,age,email,address,grade\r\n"
+                + "David Martínez,30,david.martinez@test.com,\"Av. siempre viva #124, Springfield\",6.7\r\n"
+                + "Isabella Díaz,25,isabella.diaz@test.com,\"Calle \"\"Uno\"\"\",9.4\r\n"
+                + "\r\n"
+                + "Miriam Arredondo,28,miriam.arredondo@test.com,,8.1\r\n";
+
+        when(studentRepository.insertAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StudentImportResultDto result = studentImportService.importCsv(this.toStream(csv));
+
+        assertEquals(result.getRowsRead(), 3);
+        assertEquals(result.getRowsImported(), 3);
+        assertEquals(result.getRowsFailed(), 0);
+
+        ArgumentCaptor<List<Student>> captor = ArgumentCaptor.forClass(List.class);
+        verify(studentRepository, times(2)).insertAll(captor.capture());
+        assertEquals(captor.getAllValues().get(0).get(0).getAddress(), "Av. siempre viva #124, Springfield");
+        assertEquals(captor.getAllValues().get(0).get(1).getAddress(), "Calle \"Uno\"");
+    }
+
+    @Test
+    void testImportCsvInvalidRows() throws Exception {
+        String csv = "fullName,age,email,address,grade\n"
+                + "David Martínez,30,david.martinez@test.com,Av. siempre viva #124,6.7\n"
+                + ",thirty,david.martinez,Av. siempre viva #124,6.7\n"
+                + "Isabella Díaz,-2,isabella.diaz,Av. siempre viva #124,9.4\n";
+
+        when(studentRepository.insertAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StudentImportResultDto result = studentImportService.importCsv(this.toStream(csv));
+
+        assertEquals(result.getRowsRead(), 3);
+        assertEquals(result.getRowsImported(), 1);
+        assertEquals(result.getRowsFailed(), 2);
+        assertEquals(result.getErrors().get(0).getRow(), 3);
+        assertTrue(result.getErrors().get(0).getErrors().containsKey("age"));
+        assertTrue(result.getErrors().get(1).getErrors().containsKey("email"));
+    }
+
+    @Test
+    void testImportCsvChunkFailureKeepsValidRows() throws Exception {
+        String csv = "fullName,age,email\n"
+                + "David Martínez,30,david.martinez@test.com\n"
+                + "Isabella Díaz,25,isabella.diaz@test.com\n";
+
+        when(studentRepository.insertAll(any()))
+                .thenThrow(new RuntimeException("Duplicated key"))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new RuntimeException("Duplicated key"));
+
+        StudentImportResultDto result = studentImportService.importCsv(this.toStream(csv));
+
+        assertEquals(result.getRowsImported(), 1);
+        assertEquals(result.getRowsFailed(), 1);
+        assertEquals(result.getErrors().getFirst().getRow(), 3);
+    }
+
+    @Test
+    void testImportCsvMissingColumns() throws Exception {
+        String csv = "name,email\nDavid Martínez,david.martinez@test.com\n";
+
+        assertThrows(BadRequestException.class, () -> studentImportService.importCsv(this.toStream(csv)));
+        verify(studentRepository, never()).insertAll(any());
+    }
+
+    private InputStream toStream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package com.bside.students.services;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentRankDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.repositories.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"students.cache.invalidation.enabled=false", "students.leaderboard.max-size=4"})
+public class StudentLeaderboardServiceTest {
+
+    @Autowired
+    private StudentLeaderboardService studentLeaderboardService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.streamAll()).thenAnswer(invocation -> Stream.of(
+                new StudentDto(1, "David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 9.0, 0L),
+                new StudentDto(2, "Isabella Díaz", 25, "isabella.diaz@test.com", "Av. siempre viva #124", 7.0, 0L),
+                new StudentDto(3, "Mateo López", 22, "mateo.lopez@test.com", "Calle Uno #5", 9.0, 0L),
+                new StudentDto(4, "Lucía Gómez", 21, "lucia.gomez@test.com", "Calle Uno #5", 5.0, 0L),
+                new StudentDto(5, "Tomás Ruiz", 28, "tomas.ruiz@test.com", "Calle Dos #8", 7.0, 0L)));
+        eventPublisher.publishEvent(StudentChangedEvent.reset());
+    }
+
+    @Test
+    void testGetTop() throws Exception {
+
+        List<StudentRankDto> top = studentLeaderboardService.getTop(3);
+
+        assertEquals(top.size(), 3);
+        assertEquals(top.get(0).getId(), 1);
+        assertEquals(top.get(1).getId(), 3);
+        assertEquals(top.get(1).getRank(), 1);
+        assertEquals(top.get(2).getId(), 2);
+        assertEquals(top.get(2).getRank(), 3);
+    }
+
+    @Test
+    void testGetTopSizeIsCapped() throws Exception {
+
+        List<StudentRankDto> top = studentLeaderboardService.getTop(1000);
+
+        assertEquals(top.size(), 4);
+        assertEquals(top.getLast().getRank(), 3);
+    }
+
+    @Test
+    void testGetRank() throws Exception {
+
+        assertEquals(studentLeaderboardService.getRank(5).getRank(), 3);
+        assertEquals(studentLeaderboardService.getRank(4).getRank(), 5);
+        assertEquals(studentLeaderboardService.getRank(3).getRank(), 1);
+    }
+
+    @Test
+    void testGetRankFollowsUpdateAndDelete() throws Exception {
+
+        eventPublisher.publishEvent(StudentChangedEvent.updated(4, new StudentDto(4, "Lucía Gómez", 21,
+                "lucia.gomez@test.com", "Calle Uno #5", 10.0, 1L)));
+
+        assertEquals(studentLeaderboardService.getRank(4).getRank(), 1);
+        assertEquals(studentLeaderboardService.getRank(1).getRank(), 2);
+        assertEquals(studentLeaderboardService.getTop(1).getFirst().getId(), 4);
+
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(4));
+
+        assertThrows(ResourceNotFoundException.class, () -> studentLeaderboardService.getRank(4));
+        assertEquals(studentLeaderboardService.getRank(1).getRank(), 1);
+    }
+}
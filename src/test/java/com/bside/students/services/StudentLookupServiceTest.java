@@ -0,0 +1,83 @@
+package com.bside.students.services;
+
+import com.bside.errors.BadRequestException;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentLookupDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.repositories.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"students.lookup.backend=memory", "students.cache.invalidation.enabled=false"})
+public class StudentLookupServiceTest {
+
+    @Autowired
+    private StudentLookupService studentLookupService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.streamAll()).thenAnswer(invocation -> Stream.<StudentDto>empty());
+        eventPublisher.publishEvent(StudentChangedEvent.reset());
+
+        eventPublisher.publishEvent(StudentChangedEvent.created(new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L)));
+        eventPublisher.publishEvent(StudentChangedEvent.created(new StudentDto(2, "Isabella Díaz", 25,
+                "isabella.diaz@test.com", "Calle Uno #5", 9.4, 0L)));
+    }
+
+    @Test
+    void testLookupMisspelledName() throws Exception {
+
+        List<StudentLookupDto> students = studentLookupService.lookup("davd martinez", null);
+
+        assertEquals(students.size(), 1);
+        assertEquals(students.getFirst().getId(), 1);
+        assertTrue(students.getFirst().getScore() > 0.5);
+    }
+
+    @Test
+    void testLookupRanksBestMatchFirst() throws Exception {
+
+        List<StudentLookupDto> students = studentLookupService.lookup("isabela", null);
+
+        assertFalse(students.isEmpty());
+        assertEquals(students.getFirst().getId(), 2);
+    }
+
+    @Test
+    void testLookupFollowsDeleteAndRemoteUpdate() throws Exception {
+
+        when(studentRepository.findProjectedByIdIn(List.of(2, 3))).thenReturn(List.of(new StudentDto(2,
+                "Isabella Torres", 25, "isabella.torres@test.com", "Calle Uno #5", 9.4, 1L)));
+
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(1));
+        eventPublisher.publishEvent(StudentChangedEvent.updatedAll(List.of(2, 3)));
+
+        assertTrue(studentLookupService.lookup("david", null).isEmpty());
+        assertEquals(studentLookupService.lookup("torres", null).getFirst().getFullName(), "Isabella Torres");
+        verify(studentRepository, times(1)).findProjectedByIdIn(List.of(2, 3));
+    }
+
+    @Test
+    void testLookupEmptyQueryBadRequestException() throws Exception {
+
+        assertThrows(BadRequestException.class, () -> studentLookupService.lookup("  ", null));
+    }
+}
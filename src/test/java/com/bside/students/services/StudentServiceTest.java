@@ -1,23 +1,56 @@
 package com.bside.students.services;
 
+import com.bside.errors.BadRequestException;
+import com.bside.errors.PreconditionFailedException;
 import com.bside.errors.ResourceNotFoundException;
+import com.bside.students.caches.StudentCacheNotifier;
+import com.bside.students.caches.StudentCaches;
+import com.bside.students.caches.StudentListingSnapshot;
+import com.bside.students.dtos.StudentBatchItemDto;
+import com.bside.students.dtos.StudentBatchResultDto;
 import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentPageDto;
+import com.bside.students.dtos.StudentPatchDto;
+import com.bside.students.dtos.StudentSearchDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.metrics.SqlStatementStats;
+import com.bside.students.metrics.StudentMetrics;
 import com.bside.students.models.Student;
 import com.bside.students.repositories.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = {"students.cache.invalidation.enabled=false", "students.coalescing.wait-timeout-ms=200"})
 public class StudentServiceTest {
 
     @Autowired
@@ -26,6 +59,25 @@ public class StudentServiceTest {
     @MockBean
     private StudentRepository studentRepository;
 
+    @MockBean
+    private StudentCacheNotifier studentCacheNotifier;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(StudentCaches.STUDENTS).clear();
+        // The in-memory indexes stream the table when the context starts
+        clearInvocations(studentRepository);
+    }
+
     @Test
     void testCreate() throws Exception {
         StudentDto studentDto = new StudentDto("David Martínez", 30,
@@ -56,35 +108,355 @@ public class StudentServiceTest {
     }
 
     @Test
-    void testGetAll() throws Exception {
+    @SuppressWarnings("unchecked")
+    void testCreateBatch() throws Exception {
+        List<StudentDto> studentsDto = List.of(
+                new StudentDto("David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7),
+                new StudentDto("", -2, "david.martinez", "Av. siempre viva #124", 6.7),
+                new StudentDto(7, "Isabella Díaz", 25, "isabella.diaz@test.com", "Av. siempre viva #124", 9.4));
+
+        when(studentRepository.insertAll(any())).thenAnswer(invocation -> {
+            List<Student> chunk = invocation.getArgument(0);
+            for (int i = 0; i < chunk.size(); i++) {
+                chunk.get(i).setId(100 + i);
+            }
+            return chunk;
+        });
+
+        StudentBatchResultDto result = studentService.createBatch(studentsDto);
+
+        assertEquals(result.getCreated(), 2);
+        assertEquals(result.getFailed(), 1);
+        assertEquals(result.getItems().get(0).getId(), 100);
+        assertEquals(result.getItems().get(1).getStatus(), StudentBatchItemDto.FAILED);
+        assertTrue(result.getItems().get(1).getErrors().containsKey("email"));
+        assertEquals(result.getItems().get(2).getId(), 101);
+
+        ArgumentCaptor<List<Student>> captor = ArgumentCaptor.forClass(List.class);
+        verify(studentRepository, times(1)).insertAll(captor.capture());
+        assertEquals(captor.getValue().size(), 2);
+    }
+
+    @Test
+    void testCreateIgnoresClientId() throws Exception {
+        StudentDto studentDto = new StudentDto(5, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
         Student student = new Student(1, "David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        ArgumentCaptor<Student> captor = ArgumentCaptor.forClass(Student.class);
+
+        when(studentRepository.save(any(Student.class))).thenReturn(student);
 
-        Student studentTwo = new Student(2, "Isabella Díaz", 25,
-                "isabella.díaz@test.com", "Av. siempre viva #124", 9.4);
+        studentService.create(studentDto);
 
-        List<Student> students = new ArrayList<Student>();
+        verify(studentRepository, times(1)).save(captor.capture());
+        assertNull(captor.getValue().getId());
+    }
+
+    @Test
+    void testCreateBatchChunkFailure() throws Exception {
+        List<StudentDto> studentsDto = List.of(
+                new StudentDto("David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7));
+
+        when(studentRepository.insertAll(any())).thenThrow(new RuntimeException("Authenticate DB failed"));
+
+        StudentBatchResultDto result = studentService.createBatch(studentsDto);
+
+        assertEquals(result.getCreated(), 0);
+        assertEquals(result.getFailed(), 1);
+        assertEquals(result.getItems().getFirst().getStatus(), StudentBatchItemDto.FAILED);
+    }
+
+    @Test
+    void testCreateBatchTooLarge() throws Exception {
+        List<StudentDto> studentsDto = Collections.nCopies(10001,
+                new StudentDto("David Martínez", 30, "david.martinez@test.com", "Av. siempre viva #124", 6.7));
+
+        assertThrows(BadRequestException.class, () -> studentService.createBatch(studentsDto));
+        verify(studentRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void testGetAll() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+
+        StudentDto studentTwo = new StudentDto(2, "Isabella Díaz", 25,
+                "isabella.díaz@test.com", "Av. siempre viva #124", 9.4, 0L);
+
+        List<StudentDto> students = new ArrayList<StudentDto>();
         students.add(student);
         students.add(studentTwo);
 
-        when(studentRepository.findAll()).thenReturn(students);
+        when(studentRepository.findPageAfter(any(Integer.class), any(Limit.class)))
+                .thenReturn(students);
 
-        List<StudentDto> studentsDto = studentService.getAll();
+        StudentPageDto<StudentDto> page = studentService.getAll(null, null);
+        List<StudentDto> studentsDto = page.getStudents();
 
         assertNotNull(studentsDto);
         assertEquals(studentsDto.size(), students.size());
         assertEquals(studentsDto.getFirst().getId(), students.getFirst().getId());
         assertEquals(studentsDto.get(1).getFullName(), students.get(1).getFullName());
-        verify(studentRepository, times(1)).findAll();
+        assertNull(page.getNextCursor());
+        verify(studentRepository, times(1)).findPageAfter(0, Limit.of(51));
+        verify(studentRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetListingSnapshot() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+
+        when(studentRepository.findPageAfter(any(Integer.class), any(Limit.class)))
+                .thenReturn(new ArrayList<>(List.of(student)));
+
+        // Start from a stale snapshot, whatever other tests left behind
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(99));
+        StudentListingSnapshot snapshot = studentService.getListingSnapshot().orElseThrow();
+        StudentListingSnapshot cached = studentService.getListingSnapshot().orElseThrow();
+
+        assertSame(snapshot, cached);
+        assertTrue(new String(snapshot.getJson(), StandardCharsets.UTF_8).contains("\"fullName\":\"David Martínez\""));
+        assertTrue(snapshot.hasGzip());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzip()))) {
+            assertArrayEquals(snapshot.getJson(), gzip.readAllBytes());
+        }
+        verify(studentRepository, times(1)).findPageAfter(0, Limit.of(51));
+
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(99));
+        StudentListingSnapshot rebuilt = studentService.getListingSnapshot().orElseThrow();
+
+        assertNotSame(snapshot, rebuilt);
+        assertTrue(rebuilt.getGeneration() > snapshot.getGeneration());
+        verify(studentRepository, times(2)).findPageAfter(0, Limit.of(51));
+    }
+
+    @Test
+    void testGetAllNextCursor() throws Exception {
+        StudentDto student = new StudentDto(5, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+
+        StudentDto studentTwo = new StudentDto(8, "Isabella Díaz", 25,
+                "isabella.díaz@test.com", "Av. siempre viva #124", 9.4, 0L);
+
+        List<StudentDto> students = new ArrayList<StudentDto>();
+        students.add(student);
+        students.add(studentTwo);
+
+        when(studentRepository.findPageAfter(any(Integer.class), any(Limit.class)))
+                .thenReturn(students);
+
+        StudentPageDto<StudentDto> page = studentService.getAll(4, 1);
+
+        assertEquals(page.getStudents().size(), 1);
+        assertEquals(page.getNextCursor(), 5);
+        verify(studentRepository, times(1)).findPageAfter(4, Limit.of(2));
+    }
+
+    @Test
+    void testGetAllLimitIsCapped() throws Exception {
+
+        when(studentRepository.findPageAfter(any(Integer.class), any(Limit.class)))
+                .thenReturn(new ArrayList<StudentDto>());
+
+        StudentPageDto<StudentDto> page = studentService.getAll(null, 100000);
+
+        assertEquals(page.getLimit(), 500);
+        verify(studentRepository, times(1)).findPageAfter(0, Limit.of(501));
     }
 
     @Test
     void testGetAllInternalErrorException() throws Exception {
 
-        when(studentRepository.findAll())
+        when(studentRepository.findPageAfter(any(Integer.class), any(Limit.class)))
                 .thenThrow(new RuntimeException("Authenticate DB failed"));
 
-        assertThrows(Exception.class, () -> studentService.getAll());
+        assertThrows(Exception.class, () -> studentService.getAll(null, null));
+    }
+
+    @Test
+    void testGetAllWithFields() throws Exception {
+        Map<String, Object> student = new LinkedHashMap<String, Object>();
+        student.put("id", 5);
+        student.put("fullName", "David Martínez");
+
+        Map<String, Object> studentTwo = new LinkedHashMap<String, Object>();
+        studentTwo.put("id", 8);
+        studentTwo.put("fullName", "Isabella Díaz");
+
+        when(studentRepository.findFieldsAfter(anyList(), any(Integer.class), anyInt()))
+                .thenReturn(List.of(student, studentTwo));
+
+        StudentPageDto<Map<String, Object>> page = studentService.getAll(null, 1, List.of("fullName"));
+
+        assertEquals(page.getStudents().size(), 1);
+        assertEquals(page.getStudents().getFirst().get("fullName"), "David Martínez");
+        assertEquals(page.getNextCursor(), 5);
+        verify(studentRepository, times(1)).findFieldsAfter(List.of("id", "fullName"), 0, 2);
+        verify(studentRepository, never()).findPageAfter(any(Integer.class), any(Limit.class));
+    }
+
+    @Test
+    void testGetAllWithUnknownFieldBadRequestException() throws Exception {
+
+        assertThrows(BadRequestException.class,
+                () -> studentService.getAll(null, null, List.of("fullName", "password")));
+        verify(studentRepository, never()).findFieldsAfter(anyList(), any(Integer.class), anyInt());
+    }
+
+    @Test
+    void testSearch() throws Exception {
+        StudentDto student = new StudentDto(5, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+
+        StudentDto studentTwo = new StudentDto(8, "Isabella Díaz", 25,
+                "isabella.díaz@test.com", "Av. siempre viva #124", 9.4, 0L);
+
+        when(studentRepository.search(any(), anyInt())).thenReturn(List.of(student, studentTwo));
+
+        StudentSearchDto studentSearchDto = new StudentSearchDto(20, 35, 6.0, null, "David", null);
+        StudentPageDto<StudentDto> page = studentService.search(studentSearchDto, null, 1);
+
+        assertEquals(page.getStudents().size(), 1);
+        assertEquals(page.getNextCursor(), 5);
+        verify(studentRepository, times(1)).search(any(), eq(2));
+        verify(studentRepository, never()).findAll();
+    }
+
+    @Test
+    void testSearchInvalidRangeBadRequestException() throws Exception {
+
+        StudentSearchDto studentSearchDto = new StudentSearchDto(30, 20, null, null, null, null);
+
+        assertThrows(BadRequestException.class, () -> studentService.search(studentSearchDto, null, null));
+        verify(studentRepository, never()).search(any(), anyInt());
+    }
+
+    @Test
+    void testGetByIdIsCached() throws Exception {
+        Student student = new Student(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentRepository.findById(any(Integer.class))).thenReturn(Optional.of(student));
+
+        StudentDto first = studentService.getById(1);
+        StudentDto second = studentService.getById(1);
+
+        assertEquals(first.getFullName(), student.getFullName());
+        assertEquals(second.getId(), student.getId());
+        verify(studentRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void testGetByIdLoadsOnceForConcurrentReads() throws Exception {
+        Student student = new Student(7, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int readers = 8;
+
+        when(studentRepository.findById(7)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(student);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<StudentDto>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> studentService.getById(7)));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<StudentDto> result : results) {
+                assertEquals(result.get(5, TimeUnit.SECONDS).getFullName(), student.getFullName());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(studentRepository, times(1)).findById(7);
+    }
+
+    @Test
+    void testGetAllCoalescedReadTimesOut() throws Exception {
+        StudentDto student = new StudentDto(7, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        double coalescedBefore = this.coalesced("findPageAfter");
+
+        when(studentRepository.findPageAfter(eq(40), any(Limit.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(student);
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StudentPageDto<StudentDto>> leader = executor.submit(() -> studentService.getAll(40, 10));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // The follower gives up after students.coalescing.wait-timeout-ms instead of waiting for the leader
+            SqlStatementStats stats = SqlStatementStats.start();
+            try {
+                assertThrows(IllegalStateException.class, () -> studentService.getAll(40, 10));
+                assertEquals(1, stats.getCoalesced());
+            } finally {
+                SqlStatementStats.stop();
+            }
+            release.countDown();
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS).getStudents().size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, this.coalesced("findPageAfter") - coalescedBefore);
+        verify(studentRepository, times(1)).findPageAfter(eq(40), any(Limit.class));
+    }
+
+    @Test
+    void testGetByIdNotFoundException() throws Exception {
+
+        when(studentRepository.findById(any(Integer.class))).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getById(1));
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getById(1));
+        verify(studentRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void testServiceMethodsAreTimed() throws Exception {
+
+        when(studentRepository.findById(any(Integer.class))).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.getById(1));
+        Timer timer = meterRegistry.find(StudentMetrics.SERVICE)
+                .tags("method", "getById", "exception", "ResourceNotFoundException")
+                .timer();
+        assertNotNull(timer);
+        assertTrue(timer.count() >= 1);
+    }
+
+    @Test
+    void testExport() throws Exception {
+        StudentDto student = new StudentDto(1, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, 0L);
+
+        StudentDto studentTwo = new StudentDto(2, "Isabella Díaz", 25,
+                "isabella.díaz@test.com", "Av. siempre viva #124", 9.4, 0L);
+
+        when(studentRepository.streamAll()).thenReturn(Stream.of(student, studentTwo));
+
+        List<StudentDto> exported = new ArrayList<StudentDto>();
+        long count = studentService.export(exported::add);
+
+        assertEquals(count, 2);
+        assertEquals(exported.get(1).getFullName(), studentTwo.getFullName());
+        verify(studentRepository, times(1)).streamAll();
     }
 
     @Test
@@ -93,25 +465,24 @@ public class StudentServiceTest {
         Integer id = 1;
         StudentDto studentDto = new StudentDto("David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
-        Student existingStudent = new Student(1, ",Miriam Arredondo", 30,
-                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
-        Student updatedStudent = new Student(1, "David Martínez", 30,
-                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
+        when(studentRepository.updateById(any(Integer.class), any(), anyInt(), any(), any(), anyDouble(), any()))
+                .thenReturn(Optional.of(4L));
 
-        when(studentRepository.findById(any(Integer.class))).thenReturn(Optional.of(existingStudent));
-        when(studentRepository.save(any(Student.class))).thenReturn(updatedStudent);
+        Optional<Student> studentOptionalSaved = studentService.update(id, studentDto, null);
 
-        Optional<Student> studentOptionalSaved = studentService.update(id, studentDto);
-
-        assertNotNull(studentOptionalSaved);
+        assertTrue(studentOptionalSaved.isPresent());
         studentOptionalSaved.ifPresent(studentSaved -> {
             assertEquals(studentSaved.getFullName(), studentDto.getFullName());
             assertEquals(studentSaved.getId(), id);
+            assertEquals(studentSaved.getVersion(), 4L);
         });
 
-        verify(studentRepository, times(1)).findById(any(Integer.class));
-        verify(studentRepository, times(1)).save(any(Student.class));
+        verify(studentRepository, times(1)).updateById(id, "David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7, null);
+        verify(studentRepository, never()).findById(any(Integer.class));
+        verify(studentRepository, never()).save(any(Student.class));
+        verify(studentCacheNotifier, times(1)).publish(id);
     }
 
     @Test
@@ -121,9 +492,11 @@ public class StudentServiceTest {
         StudentDto studentDto = new StudentDto("David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
-        when(studentRepository.findById(any(Integer.class))).thenReturn(Optional.empty());
+        when(studentRepository.updateById(any(Integer.class), any(), anyInt(), any(), any(), anyDouble(), any()))
+                .thenReturn(Optional.empty());
 
-        assertThrows(ResourceNotFoundException.class, () -> studentService.update(id, studentDto));
+        assertThrows(ResourceNotFoundException.class, () -> studentService.update(id, studentDto, null));
+        verify(studentCacheNotifier, never()).publish(any());
 
     }
 
@@ -134,25 +507,85 @@ public class StudentServiceTest {
         StudentDto studentDto = new StudentDto("David Martínez", 30,
                 "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
-        when(studentRepository.findById(any(Integer.class)))
+        when(studentRepository.updateById(any(Integer.class), any(), anyInt(), any(), any(), anyDouble(), any()))
                 .thenThrow(new RuntimeException("Authenticate DB failed"));
 
-        assertThrows(Exception.class, () -> studentService.update(id, studentDto));
+        assertThrows(Exception.class, () -> studentService.update(id, studentDto, null));
 
     }
 
     @Test
-    void testDelete() throws Exception {
+    void testUpdateVersionMismatch() throws Exception {
 
         Integer id = 1;
+        StudentDto studentDto = new StudentDto("David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
 
+        when(studentRepository.updateById(any(Integer.class), any(), anyInt(), any(), any(), anyDouble(), any()))
+                .thenReturn(Optional.empty());
         when(studentRepository.existsById(any(Integer.class))).thenReturn(true);
-        doNothing().when(studentRepository).deleteById(any(Integer.class));
 
-        studentService.delete(id);
+        assertThrows(PreconditionFailedException.class, () -> studentService.update(id, studentDto, 2L));
+        verify(studentCacheNotifier, never()).publish(any());
+    }
+
+    @Test
+    void testUpdateWithVersion() throws Exception {
+
+        Integer id = 1;
+        StudentDto studentDto = new StudentDto("David Martínez", 30,
+                "david.martinez@test.com", "Av. siempre viva #124", 6.7);
+
+        when(studentRepository.updateById(any(Integer.class), any(), anyInt(), any(), any(), anyDouble(), any()))
+                .thenReturn(Optional.of(3L));
+
+        Optional<Student> student = studentService.update(id, studentDto, 2L);
+
+        assertEquals(student.get().getVersion(), 3L);
+    }
+
+    @Test
+    void testPatch() throws Exception {
+
+        Integer id = 1;
+        StudentPatchDto studentPatchDto = new StudentPatchDto(null, null, null, null, 8.2);
+
+        when(studentRepository.patchById(any(Integer.class), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.of(new StudentDto(1, "David Martínez", 30,
+                        "david.martinez@test.com", "Av. siempre viva #124", 8.2, 4L)));
+
+        Long version = studentService.patch(id, studentPatchDto, null);
+
+        assertEquals(version, 4L);
+        verify(studentRepository, times(1)).patchById(id, null, null, null, null, 8.2, null);
+        verify(studentCacheNotifier, times(1)).publish(id);
+    }
+
+    @Test
+    void testPatchNotFoundException() throws Exception {
+
+        Integer id = 1;
+        StudentPatchDto studentPatchDto = new StudentPatchDto(null, 31, null, null, null);
+
+        when(studentRepository.patchById(any(Integer.class), any(), any(), any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> studentService.patch(id, studentPatchDto, null));
+    }
+
+    @Test
+    void testDelete() throws Exception {
+
+        Integer id = 1;
+
+        when(studentRepository.removeById(any(Integer.class), any())).thenReturn(1);
+
+        studentService.delete(id, null);
 
-        verify(studentRepository, times(1)).existsById(any(Integer.class));
-        verify(studentRepository, times(1)).deleteById(any(Integer.class));
+        verify(studentRepository, times(1)).removeById(id, null);
+        verify(studentRepository, never()).existsById(any(Integer.class));
+        verify(studentRepository, never()).deleteById(any(Integer.class));
+        verify(studentCacheNotifier, times(1)).publish(id);
     }
 
     @Test
@@ -160,21 +593,37 @@ public class StudentServiceTest {
 
         Integer id = 1;
 
-        when(studentRepository.existsById(any(Integer.class))).thenReturn(false);
-        doNothing().when(studentRepository).deleteById(any(Integer.class));
+        when(studentRepository.removeById(any(Integer.class), any())).thenReturn(0);
 
-        assertThrows(ResourceNotFoundException.class, () -> studentService.delete(id));
+        assertThrows(ResourceNotFoundException.class, () -> studentService.delete(id, null));
+        verify(studentCacheNotifier, never()).publish(any());
 
     }
 
+    @Test
+    void testDeleteVersionMismatch() throws Exception {
+
+        Integer id = 1;
+
+        when(studentRepository.removeById(any(Integer.class), any())).thenReturn(0);
+        when(studentRepository.existsById(any(Integer.class))).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> studentService.delete(id, 5L));
+    }
+
     @Test
     void testDeleteInternalErrorException() throws Exception {
 
         Integer id = 1;
 
-        when(studentRepository.existsById(any(Integer.class)))
+        when(studentRepository.removeById(any(Integer.class), any()))
                 .thenThrow(new RuntimeException("Authenticate DB failed"));
 
-        assertThrows(Exception.class, () -> studentService.delete(id));
+        assertThrows(Exception.class, () -> studentService.delete(id, null));
+    }
+
+    private double coalesced(String operation) {
+        Counter counter = meterRegistry.find(StudentMetrics.COALESCED).tags("operation", operation).counter();
+        return counter == null ? 0 : counter.count();
     }
 }
@@ -0,0 +1,85 @@
+package com.bside.students.services;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentGradeStatsDto;
+import com.bside.students.dtos.StudentStatsDto;
+import com.bside.students.events.StudentChangedEvent;
+import com.bside.students.repositories.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"students.stats.backend=memory", "students.cache.invalidation.enabled=false"})
+public class StudentStatsServiceTest {
+
+    @Autowired
+    private StudentStatsService studentStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @MockBean
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.streamAll()).thenAnswer(invocation -> Stream.of(
+                new StudentDto(1, "David Martínez", 20, "david.martinez@test.com", "Av. siempre viva #124", 6.0, 0L),
+                new StudentDto(2, "Isabella Díaz", 22, "isabella.diaz@test.com", "Av. siempre viva #124", 8.0, 0L)));
+        eventPublisher.publishEvent(StudentChangedEvent.reset());
+
+        eventPublisher.publishEvent(StudentChangedEvent.created(new StudentDto(3, "Mateo López", 40,
+                "mateo.lopez@test.com", "Calle Uno #5", 10.0, 0L)));
+    }
+
+    @Test
+    void testGetStats() throws Exception {
+
+        StudentStatsDto stats = studentStatsService.getStats();
+        StudentGradeStatsDto overall = stats.getOverall();
+
+        assertEquals(overall.getCount(), 3);
+        assertEquals(overall.getMean(), 8.0, 1e-9);
+        assertEquals(overall.getMin(), 6.0);
+        assertEquals(overall.getMax(), 10.0);
+        assertEquals(overall.getP50(), 8.0, 1e-9);
+        assertEquals(overall.getP90(), 9.6, 1e-9);
+        assertEquals(overall.getP99(), 9.96, 1e-9);
+        assertEquals(overall.getHistogram().size(), 10);
+        assertEquals(overall.getHistogram().get(6).getCount(), 1);
+        assertEquals(overall.getHistogram().get(9).getCount(), 1);
+
+        assertEquals(stats.getAgeBands().size(), 5);
+        assertEquals(stats.getAgeBands().get(1).getAgeBand(), "18-24");
+        assertEquals(stats.getAgeBands().get(1).getCount(), 2);
+        assertEquals(stats.getAgeBands().get(3).getAgeBand(), "35-49");
+        assertEquals(stats.getAgeBands().get(3).getMax(), 10.0);
+        assertEquals(stats.getAgeBands().getFirst().getCount(), 0);
+        assertNull(stats.getAgeBands().getFirst().getMean());
+    }
+
+    @Test
+    void testGetStatsFollowsUpdateAndDelete() throws Exception {
+
+        StudentStatsDto before = studentStatsService.getStats();
+        eventPublisher.publishEvent(StudentChangedEvent.updated(3, new StudentDto(3, "Mateo López", 40,
+                "mateo.lopez@test.com", "Calle Uno #5", 4.0, 1L)));
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(1));
+        StudentStatsDto after = studentStatsService.getStats();
+
+        assertNotSame(before, after);
+        assertEquals(after.getOverall().getCount(), 2);
+        assertEquals(after.getOverall().getMin(), 4.0);
+        assertEquals(after.getOverall().getMax(), 8.0);
+        assertEquals(after.getAgeBands().get(1).getCount(), 1);
+        assertSame(after, studentStatsService.getStats());
+    }
+}
@@ -0,0 +1,107 @@
+package com.bside.students.services;
+
+import com.bside.errors.ResourceNotFoundException;
+import com.bside.errors.TooManyRequestsException;
+import com.bside.students.dtos.StudentBatchItemDto;
+import com.bside.students.dtos.StudentBatchResultDto;
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.dtos.StudentWriteStatusDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {"students.write-behind.enabled=true", "students.write-behind.queue-capacity=2",
+        "students.write-behind.max-batch-size=2", "students.write-behind.max-linger-ms=20",
+        "students.cache.invalidation.enabled=false"})
+public class StudentWriteBehindServiceTest {
+
+    @Autowired
+    private StudentWriteBehindService studentWriteBehindService;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    void testEnqueueIsFlushedInBatches() throws Exception {
+
+        when(studentService.createBatch(anyList())).thenAnswer(invocation -> this.created(invocation.getArgument(0)));
+
+        StudentWriteStatusDto first = studentWriteBehindService.enqueue(this.student("David Martínez"));
+        StudentWriteStatusDto second = studentWriteBehindService.enqueue(this.student("Isabella Díaz"));
+
+        assertEquals(first.getStatus(), StudentWriteStatusDto.PENDING);
+        await().atMost(Duration.ofSeconds(5)).until(() -> StudentWriteStatusDto.CREATED.equals(
+                studentWriteBehindService.getStatus(second.getToken()).getStatus()));
+        assertEquals(studentWriteBehindService.getStatus(first.getToken()).getStatus(), StudentWriteStatusDto.CREATED);
+        assertNotNull(studentWriteBehindService.getStatus(first.getToken()).getId());
+        verify(studentService, never()).create(any(StudentDto.class));
+    }
+
+    @Test
+    void testEnqueueQueueFullTooManyRequestsException() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        when(studentService.createBatch(anyList())).thenAnswer(invocation -> {
+            flushing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return this.created(invocation.getArgument(0));
+        });
+
+        StudentWriteStatusDto first = studentWriteBehindService.enqueue(this.student("David Martínez"));
+        assertTrue(flushing.await(5, TimeUnit.SECONDS));
+        studentWriteBehindService.enqueue(this.student("Isabella Díaz"));
+        StudentWriteStatusDto third = studentWriteBehindService.enqueue(this.student("Mateo López"));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> studentWriteBehindService.enqueue(this.student("Lucía Gómez")));
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(5)).until(() -> StudentWriteStatusDto.CREATED.equals(
+                studentWriteBehindService.getStatus(third.getToken()).getStatus()));
+        assertEquals(studentWriteBehindService.getStatus(first.getToken()).getStatus(), StudentWriteStatusDto.CREATED);
+    }
+
+    @Test
+    void testEnqueueFailedBatch() throws Exception {
+
+        when(studentService.createBatch(anyList())).thenThrow(new RuntimeException("Authenticate DB failed"));
+
+        StudentWriteStatusDto status = studentWriteBehindService.enqueue(this.student("David Martínez"));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> StudentWriteStatusDto.FAILED.equals(
+                studentWriteBehindService.getStatus(status.getToken()).getStatus()));
+    }
+
+    @Test
+    void testGetStatusNotFoundException() throws Exception {
+
+        assertThrows(ResourceNotFoundException.class, () -> studentWriteBehindService.getStatus("unknown"));
+    }
+
+    private StudentDto student(String fullName) {
+        return new StudentDto(fullName, 30, "student@test.com", "Av. siempre viva #124", 6.7);
+    }
+
+    private StudentBatchResultDto created(List<StudentDto> studentsDto) {
+        List<StudentBatchItemDto> items = new ArrayList<StudentBatchItemDto>();
+        for (int i = 0; i < studentsDto.size(); i++) {
+            StudentBatchItemDto item = new StudentBatchItemDto(i);
+            item.created(100 + i);
+            items.add(item);
+        }
+        return new StudentBatchResultDto(items.size(), 0, items);
+    }
+}
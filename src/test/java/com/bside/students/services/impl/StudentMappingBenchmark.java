@@ -0,0 +1,60 @@
+package com.bside.students.services.impl;
+
+import com.bside.students.dtos.StudentDto;
+import com.bside.students.models.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity and DTO conversions done by {@link StudentServiceImpl} on every create, update and batch
+ * chunk. Lives next to the service because the mappers are package-private. Run with
+ * {@code mvn test -Pjmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentMappingBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int size;
+
+    private List<Student> students;
+    private List<StudentDto> studentsDto;
+
+    @Setup
+    public void setUp() {
+        students = new ArrayList<>(size);
+        studentsDto = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Student student = new Student(i + 1, "Student " + i, 18 + i % 40, "student" + i + "@test.com",
+                    "Street " + i, (i % 101) / 10.0);
+            student.setVersion((long) i % 7);
+            students.add(student);
+            studentsDto.add(StudentServiceImpl.modelToDto(student));
+        }
+    }
+
+    @Benchmark
+    public List<StudentDto> modelToDto() {
+        List<StudentDto> result = new ArrayList<>(students.size());
+        for (Student student : students) {
+            result.add(StudentServiceImpl.modelToDto(student));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Student> dtoToModel() {
+        List<Student> result = new ArrayList<>(studentsDto.size());
+        for (StudentDto studentDto : studentsDto) {
+            result.add(StudentServiceImpl.dtoToModel(studentDto));
+        }
+        return result;
+    }
+}